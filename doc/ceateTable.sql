@@ -8,6 +8,7 @@ create table user
     profile      varchar(1024)                      null comment '个人描述
 ',
     avatarUrl    varchar(1024)                      null comment '用户头像',
+    avatarVariants varchar(2048)                    null comment '头像缩略图 json（边长 => 地址）',
     gender       tinyint                            null comment '性别',
     userPassword varchar(512)                       not null comment '密码',
     email        varchar(512)                       null comment '邮箱',
@@ -15,13 +16,27 @@ create table user
     phone        varchar(128)                       null comment '电话',
     createTime   datetime default CURRENT_TIMESTAMP null comment '创建时间',
     updateTime   datetime default CURRENT_TIMESTAMP null on update CURRENT_TIMESTAMP comment '更新时间',
-    isDelete     tinyint  default 0                 not null comment '是否删除',
+    isDelete     bigint   default 0                 not null comment '是否删除 0-未删除，删除时置为 id',
     planetCode   varchar(512)                       null comment '星球编号',
     userRole     int      default 0                 not null comment '用户角色 0 - 普通用户 1 - 管理员',
-    tags         varchar(1024)                      null comment '标签 json 列表'
+    tags         varchar(1024)                      null comment '标签 json 列表',
+    version      int      default 0                 not null comment '乐观锁版本号'
 )
     comment '用户表';
 
+-- 账号在未删除的用户中唯一：逻辑删除时 isDelete 置为 id，已删除的账号可以重新注册
+create unique index uniIdx_userAccount
+    on user (userAccount, isDelete);
+
+create unique index uniIdx_planetCode
+    on user (planetCode);
+
+create index idx_username_id
+    on user (username, id);
+
+create fulltext index ftIdx_username
+    on user (username) with parser ngram;
+
 
 -- auto-generated definition
 create table tag
@@ -50,6 +65,7 @@ create table team
         primary key,
     name         varchar(256)                       not null comment '队伍名',
     avatarUrl    varchar(1024)                      null comment '队伍头像',
+    avatarVariants varchar(2048)                    null comment '头像缩略图 json（边长 => 地址）',
     description  varchar(1024)                      null comment '队伍描述',
     userId       bigint                             comment '创建人',
     maxNum       int      default 1                 not null comment '队伍最大人数',
@@ -58,10 +74,12 @@ create table team
     expireTime   datetime                           null comment '过期时间',
     createTime   datetime default CURRENT_TIMESTAMP null comment '创建时间',
     updateTime   datetime default CURRENT_TIMESTAMP null comment '更新时间',
-    isDelete     tinyint  default 0                 not null comment '逻辑删除'
+    isDelete     tinyint  default 0                 not null comment '逻辑删除',
+    version      int      default 0                 not null comment '乐观锁版本号'
 )
     comment '队伍表';
 ALTER TABLE team MODIFY COLUMN updateTime datetime default CURRENT_TIMESTAMP null on update CURRENT_TIMESTAMP;
+-- 已有库的结构变更见 migration.sql
 
 
 
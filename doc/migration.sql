@@ -0,0 +1,21 @@
+-- 已有库升级脚本：按顺序执行，新建库直接使用 ceateTable.sql，不需要执行本文件
+
+-- 乐观锁版本号
+ALTER TABLE user ADD COLUMN version int default 0 not null comment '乐观锁版本号';
+ALTER TABLE team ADD COLUMN version int default 0 not null comment '乐观锁版本号';
+
+-- 账号唯一索引（先清理重复账号）：逻辑删除时 isDelete 置为 id，唯一索引带上删除标记，已删除的账号可以重新注册
+ALTER TABLE user MODIFY COLUMN isDelete bigint default 0 not null comment '是否删除 0-未删除，删除时置为 id';
+UPDATE user SET isDelete = id WHERE isDelete = 1;
+ALTER TABLE user ADD UNIQUE INDEX uniIdx_userAccount (userAccount, isDelete);
+
+-- 头像缩略图
+ALTER TABLE user ADD COLUMN avatarVariants varchar(2048) null comment '头像缩略图 json（边长 => 地址）' after avatarUrl;
+ALTER TABLE team ADD COLUMN avatarVariants varchar(2048) null comment '头像缩略图 json（边长 => 地址）' after avatarUrl;
+
+-- 星球编号唯一索引（批量导入去重，多个 NULL 不冲突）
+ALTER TABLE user ADD UNIQUE INDEX uniIdx_planetCode (planetCode);
+
+-- 昵称索引（管理员搜索：前缀匹配走普通索引，包含匹配走 ngram 全文索引，ngram_token_size 默认 2）
+ALTER TABLE user ADD INDEX idx_username_id (username, id);
+ALTER TABLE user ADD FULLTEXT INDEX ftIdx_username (username) WITH PARSER ngram;
@@ -0,0 +1,18 @@
+package com.tu.hb.annotation;
+
+import java.lang.annotation.*;
+
+/**
+ * 舱壁隔离：被注解的接口在独立的有界线程池中执行，线程和队列都占满时直接拒绝
+ * 方法返回值必须是 CompletableFuture（以异步 Servlet 方式响应，不占用 Tomcat 工作线程）
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface Bulkhead {
+
+    /**
+     * 线程池名称，对应 hb.bulkhead.pools 下的配置
+     */
+    String value();
+}
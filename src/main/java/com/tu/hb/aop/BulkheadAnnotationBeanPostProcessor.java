@@ -0,0 +1,30 @@
+package com.tu.hb.aop;
+
+import com.tu.hb.annotation.Bulkhead;
+import org.springframework.aop.framework.autoproxy.AbstractBeanFactoryAwareAdvisingPostProcessor;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * 为带有 {@link Bulkhead} 方法的 bean 创建代理（和 @Async 的实现方式相同，不依赖 AspectJ）
+ */
+@Component
+public class BulkheadAnnotationBeanPostProcessor extends AbstractBeanFactoryAwareAdvisingPostProcessor {
+
+    private static final long serialVersionUID = 1L;
+
+    public BulkheadAnnotationBeanPostProcessor() {
+        // 控制器没有接口，使用 CGLIB 代理
+        setProxyTargetClass(true);
+        setBeforeExistingAdvisors(true);
+    }
+
+    @Override
+    public void setBeanFactory(BeanFactory beanFactory) {
+        super.setBeanFactory(beanFactory);
+        this.advisor = new DefaultPointcutAdvisor(new AnnotationMatchingPointcut(null, Bulkhead.class, true),
+                new BulkheadMethodInterceptor(beanFactory));
+    }
+}
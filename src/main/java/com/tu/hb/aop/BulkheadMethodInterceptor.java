@@ -0,0 +1,82 @@
+package com.tu.hb.aop;
+
+import com.tu.hb.annotation.Bulkhead;
+import com.tu.hb.common.ErrorCode;
+import com.tu.hb.exception.BusinessException;
+import com.tu.hb.manage.BulkheadRegistry;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * 把 {@link Bulkhead} 方法提交到对应的线程池执行，线程池饱和时立即拒绝
+ */
+public class BulkheadMethodInterceptor implements MethodInterceptor {
+
+    private final BeanFactory beanFactory;
+
+    private volatile BulkheadRegistry bulkheadRegistry;
+
+    public BulkheadMethodInterceptor(BeanFactory beanFactory) {
+        this.beanFactory = beanFactory;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Object invoke(MethodInvocation invocation) {
+        Bulkhead bulkhead = AnnotatedElementUtils.findMergedAnnotation(invocation.getMethod(), Bulkhead.class);
+        if (bulkhead == null || !CompletableFuture.class.isAssignableFrom(invocation.getMethod().getReturnType())) {
+            throw new IllegalStateException("@Bulkhead method must return CompletableFuture: " + invocation.getMethod());
+        }
+        String name = bulkhead.value();
+        ThreadPoolExecutor executor = getBulkheadRegistry().getExecutor(name);
+        // 原请求线程返回后 RequestAttributes 会被标记为已完成，工作线程基于同一个请求重新创建
+        RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+        CompletableFuture<Object> result = new CompletableFuture<>();
+        try {
+            executor.execute(() -> {
+                if (requestAttributes instanceof ServletRequestAttributes) {
+                    RequestContextHolder.setRequestAttributes(
+                            new ServletRequestAttributes(((ServletRequestAttributes) requestAttributes).getRequest()));
+                }
+                try {
+                    Object value = invocation.proceed();
+                    if (value == null) {
+                        result.complete(null);
+                        return;
+                    }
+                    ((CompletableFuture<Object>) value).whenComplete((data, ex) -> {
+                        if (ex != null) {
+                            result.completeExceptionally(ex);
+                        } else {
+                            result.complete(data);
+                        }
+                    });
+                } catch (Throwable e) {
+                    result.completeExceptionally(e);
+                } finally {
+                    RequestContextHolder.resetRequestAttributes();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            getBulkheadRegistry().recordRejected(name);
+            throw new BusinessException(ErrorCode.TOO_MANY_REQUEST, "服务繁忙，请稍后再试");
+        }
+        return result;
+    }
+
+    private BulkheadRegistry getBulkheadRegistry() {
+        if (bulkheadRegistry == null) {
+            bulkheadRegistry = beanFactory.getBean(BulkheadRegistry.class);
+        }
+        return bulkheadRegistry;
+    }
+}
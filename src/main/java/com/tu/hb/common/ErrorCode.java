@@ -10,6 +10,8 @@ public enum ErrorCode {
     NULL_ERROR(40001, "请求数据为空", ""),
     NOT_LOGIN(40100, "未登录", ""),
     NO_AUTH(40101,"无权限", ""),
+    OPERATION_CONFLICT(40900, "数据已被修改，请刷新后重试", ""),
+    TOO_MANY_REQUEST(42900, "请求过于频繁，请稍后再试", ""),
     SYSTEM_ERROR(50000,"系统内部异常","");
 
     private final int code;
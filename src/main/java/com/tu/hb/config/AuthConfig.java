@@ -0,0 +1,40 @@
+package com.tu.hb.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 登录认证配置
+ */
+@Configuration
+@ConfigurationProperties(prefix = "hb.auth")
+@Data
+public class AuthConfig {
+
+    /**
+     * 会话模式：session 使用 Spring Session（Redis），token 使用无状态签名令牌
+     */
+    public static final String MODE_SESSION = "session";
+
+    public static final String MODE_TOKEN = "token";
+
+    /**
+     * 认证模式
+     */
+    private String mode = MODE_SESSION;
+
+    /**
+     * 令牌签名密钥（HMAC-SHA256）
+     */
+    private String tokenSecret;
+
+    /**
+     * 令牌有效期（秒）
+     */
+    private long tokenExpireSeconds = 86400;
+
+    public boolean isTokenMode() {
+        return MODE_TOKEN.equals(mode);
+    }
+}
@@ -0,0 +1,41 @@
+package com.tu.hb.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 舱壁隔离线程池配置
+ */
+@Configuration
+@ConfigurationProperties(prefix = "hb.bulkhead")
+@Data
+public class BulkheadConfig {
+
+    /**
+     * 线程池名称 => 线程池配置，未配置的名称使用默认值
+     */
+    private Map<String, Pool> pools = new HashMap<>();
+
+    @Data
+    public static class Pool {
+
+        /**
+         * 核心线程数
+         */
+        private int coreSize = 4;
+
+        /**
+         * 最大线程数
+         */
+        private int maxSize = 8;
+
+        /**
+         * 等待队列长度，队列满且线程数达到最大值时拒绝
+         */
+        private int queueCapacity = 50;
+    }
+}
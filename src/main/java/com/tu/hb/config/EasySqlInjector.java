@@ -0,0 +1,36 @@
+package com.tu.hb.config;
+
+import com.baomidou.mybatisplus.core.injector.AbstractMethod;
+import com.baomidou.mybatisplus.core.injector.DefaultSqlInjector;
+import com.baomidou.mybatisplus.core.metadata.TableFieldInfo;
+import com.baomidou.mybatisplus.core.metadata.TableInfo;
+import com.baomidou.mybatisplus.extension.injector.methods.InsertBatchSomeColumn;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 在默认方法之外注入 insertBatchSomeColumn（见 EasyBaseMapper）
+ */
+public class EasySqlInjector extends DefaultSqlInjector {
+
+    /**
+     * 批量插入时不插入的字段，由数据库填充默认值
+     */
+    private static final Set<String> DEFAULT_VALUE_FIELD_SET = new HashSet<>(Arrays.asList("createTime", "updateTime"));
+
+    @Override
+    public List<AbstractMethod> getMethodList(Class<?> mapperClass, TableInfo tableInfo) {
+        List<AbstractMethod> methodList = super.getMethodList(mapperClass, tableInfo);
+        methodList.add(new InsertBatchSomeColumn(EasySqlInjector::isInsertColumn));
+        return methodList;
+    }
+
+    private static boolean isInsertColumn(TableFieldInfo tableFieldInfo) {
+        return !tableFieldInfo.isLogicDelete()
+                && !tableFieldInfo.isVersion()
+                && !DEFAULT_VALUE_FIELD_SET.contains(tableFieldInfo.getProperty());
+    }
+}
@@ -0,0 +1,51 @@
+package com.tu.hb.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 接口限流配置
+ */
+@Configuration
+@ConfigurationProperties(prefix = "hb.rate-limit")
+@Data
+public class RateLimitConfig {
+
+    /**
+     * 是否开启限流
+     */
+    private boolean enabled = true;
+
+    /**
+     * 各接口的限流规则
+     */
+    private List<Rule> rules = new ArrayList<>();
+
+    @Data
+    public static class Rule {
+
+        /**
+         * 接口路径（不含 context-path，支持 Ant 风格通配符）
+         */
+        private String path;
+
+        /**
+         * 每个时间窗口内，同一用户允许的请求数
+         */
+        private long userPermits;
+
+        /**
+         * 每个时间窗口内，同一 IP 允许的请求数（多个用户可能共用出口 IP，一般大于 userPermits）
+         */
+        private long ipPermits;
+
+        /**
+         * 时间窗口（秒）
+         */
+        private long intervalSeconds = 60;
+    }
+}
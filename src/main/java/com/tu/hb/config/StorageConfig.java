@@ -0,0 +1,47 @@
+package com.tu.hb.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 对象存储配置
+ */
+@Configuration
+@ConfigurationProperties(prefix = "hb.storage")
+@Data
+public class StorageConfig {
+
+    public static final String TYPE_COS = "cos";
+
+    public static final String TYPE_LOCAL = "local";
+
+    /**
+     * 存储类型：cos | local
+     */
+    private String type = TYPE_COS;
+
+    /**
+     * 本地存储配置
+     */
+    private Local local = new Local();
+
+    @Data
+    public static class Local {
+
+        /**
+         * 文件根目录
+         */
+        private String rootPath = "./storage";
+
+        /**
+         * 访问地址前缀（对应 LocalFileController）
+         */
+        private String publicUrl = "http://localhost:8080/api/file/local";
+
+        /**
+         * 预签名上传地址的签名密钥
+         */
+        private String secret;
+    }
+}
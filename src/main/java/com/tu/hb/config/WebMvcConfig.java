@@ -1,14 +1,38 @@
 package com.tu.hb.config;
 
+import com.tu.hb.interceptor.RateLimitInterceptor;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
+import javax.annotation.Resource;
+import java.util.List;
+import java.util.stream.Collectors;
+
 /**
  *
  */
 @Configuration
 public class WebMvcConfig implements WebMvcConfigurer {
+
+    @Resource
+    private RateLimitInterceptor rateLimitInterceptor;
+
+    @Resource
+    private RateLimitConfig rateLimitConfig;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        // 只拦截配置了限流规则的接口
+        List<String> pathList = rateLimitConfig.getRules().stream()
+                .map(RateLimitConfig.Rule::getPath)
+                .collect(Collectors.toList());
+        if (!pathList.isEmpty()) {
+            registry.addInterceptor(rateLimitInterceptor).addPathPatterns(pathList);
+        }
+    }
+
     @Override
     public void addCorsMappings(CorsRegistry registry) {
         // 覆盖所有请求
@@ -19,7 +43,8 @@ public class WebMvcConfig implements WebMvcConfigurer {
                 .allowedOriginPatterns("http://zhb.wang-code.icu", "https://hb-project-1323562344.cos.ap-guangzhou.myqcloud.com", "https://zhb.wang-code.icu", "http://localhost:3000")
                 .allowedMethods("GET", "POST", "PUT", "DELETE", "OPTIONS")
                 .allowedHeaders("*")
-                .exposedHeaders("*")
+                // 令牌模式下前端需要读取 Authorization 响应头
+                .exposedHeaders("*", "Authorization")
                 .maxAge(3600);
     }
 }
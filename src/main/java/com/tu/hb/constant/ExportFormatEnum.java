@@ -0,0 +1,55 @@
+package com.tu.hb.constant;
+
+import org.apache.commons.lang3.ObjectUtils;
+
+/**
+ * 导出文件格式枚举
+ */
+public enum ExportFormatEnum {
+    /**
+     * CSV（UTF-8 带 BOM，Excel 可直接打开）
+     */
+    CSV("csv", "text/csv;charset=UTF-8"),
+    /**
+     * Excel 2007+
+     */
+    EXCEL("xlsx", "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet");
+
+    /**
+     * 格式值，同时作为文件后缀
+     */
+    private final String value;
+
+    private final String contentType;
+
+    ExportFormatEnum(String value, String contentType) {
+        this.value = value;
+        this.contentType = contentType;
+    }
+
+    /**
+     * 根据 value 获取枚举
+     *
+     * @param value
+     * @return
+     */
+    public static ExportFormatEnum getEnumByValue(String value) {
+        if (ObjectUtils.isEmpty(value)) {
+            return null;
+        }
+        for (ExportFormatEnum anEnum : ExportFormatEnum.values()) {
+            if (anEnum.value.equals(value)) {
+                return anEnum;
+            }
+        }
+        return null;
+    }
+
+    public String getValue() {
+        return value;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+}
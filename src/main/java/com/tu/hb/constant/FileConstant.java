@@ -11,4 +11,29 @@ public interface FileConstant {
      *  需替换配置
      */
     String COS_HOST = "https://hb-project-1323562344.cos.ap-guangzhou.myqcloud.com";
+
+    /**
+     * 1M
+     */
+    long ONE_M = 1024 * 1024L;
+
+    /**
+     * 预签名上传地址的有效期（秒）
+     */
+    long PRESIGN_EXPIRE_SECONDS = 300;
+
+    /**
+     * 头像缩略图边长（像素），对应列表、卡片和详情页的显示尺寸
+     */
+    int[] AVATAR_THUMBNAIL_SIZES = {48, 128, 256};
+
+    /**
+     * 分片上传的分片大小（COS 要求除最后一个分片外不小于 1M）
+     */
+    long MULTIPART_PART_SIZE = 5 * ONE_M;
+
+    /**
+     * 分片数量上限
+     */
+    int MULTIPART_MAX_PART_COUNT = 10000;
 }
\ No newline at end of file
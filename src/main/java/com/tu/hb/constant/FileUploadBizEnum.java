@@ -1,5 +1,8 @@
 package com.tu.hb.constant;
 
+import cn.hutool.core.io.FileUtil;
+import com.tu.hb.common.ErrorCode;
+import com.tu.hb.exception.BusinessException;
 import org.apache.commons.lang3.ObjectUtils;
 
 import java.util.Arrays;
@@ -14,11 +17,11 @@ public enum FileUploadBizEnum {
     /**
      * 用户头像
      */
-    USER_AVATAR("用户头像", "user_avatar"),
+    USER_AVATAR("用户头像", "user_avatar", FileConstant.ONE_M, Arrays.asList("jpeg", "jpg", "svg", "png", "webp")),
     /**
      * 队伍头像
      */
-    TEAM_AVATAR("队伍头像", "team_avatar");
+    TEAM_AVATAR("队伍头像", "team_avatar", FileConstant.ONE_M, Arrays.asList("jpeg", "jpg", "svg", "png", "webp"));
 
     /**
      * 类型描述
@@ -28,10 +31,38 @@ public enum FileUploadBizEnum {
      * 类型值
      */
     private final String value;
+    /**
+     * 文件大小上限（字节）
+     */
+    private final long maxSize;
+    /**
+     * 允许的文件后缀
+     */
+    private final List<String> suffixList;
 
-    FileUploadBizEnum(String text, String value) {
+    FileUploadBizEnum(String text, String value, long maxSize, List<String> suffixList) {
         this.text = text;
         this.value = value;
+        this.maxSize = maxSize;
+        this.suffixList = suffixList;
+    }
+
+    /**
+     * 校验文件大小和后缀
+     *
+     * @param fileSize 文件大小
+     * @param fileName 文件名
+     */
+    public void validFile(long fileSize, String fileName) {
+        if (fileSize <= 0) {
+            throw new BusinessException(ErrorCode.PARAMS_ERROR, "文件为空");
+        }
+        if (fileSize > maxSize) {
+            throw new BusinessException(ErrorCode.PARAMS_ERROR, "文件大小不能超过 " + maxSize / FileConstant.ONE_M + "M");
+        }
+        if (!suffixList.contains(FileUtil.getSuffix(fileName))) {
+            throw new BusinessException(ErrorCode.PARAMS_ERROR, "文件类型错误");
+        }
     }
 
     /**
@@ -68,4 +99,8 @@ public enum FileUploadBizEnum {
     public String getText() {
         return text;
     }
+
+    public long getMaxSize() {
+        return maxSize;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,143 @@
+package com.tu.hb.constant;
+
+/**
+ * Redis 键常量
+ */
+public interface RedisConstant {
+
+    /**
+     * 用户已加入的队伍 id 集合（Set），%s 为用户 id
+     */
+    String USER_JOIN_TEAM_KEY = "hb:team:join:%s";
+
+    /**
+     * 已加入队伍集合的过期时间（小时）
+     */
+    long USER_JOIN_TEAM_TTL_HOURS = 24;
+
+    /**
+     * 已加入队伍集合的版本号，成员变更时自增，%s 为用户 id
+     */
+    String USER_JOIN_TEAM_VERSION_KEY = "hb:team:join:version:%s";
+
+    /**
+     * 用户已创建的队伍数量（计数器），%s 为用户 id
+     */
+    String USER_CREATE_TEAM_COUNT_KEY = "hb:team:create:count:%s";
+
+    /**
+     * 已创建队伍计数器的过期时间（小时），过期后从数据库重新统计
+     */
+    long USER_CREATE_TEAM_COUNT_TTL_HOURS = 24;
+
+    /**
+     * 队伍成员变更锁，%s 为队伍 id
+     */
+    String TEAM_MEMBER_LOCK_KEY = "hb:team:member:lock:%s";
+
+    /**
+     * 用户加入队伍锁，%s 为用户 id
+     */
+    String USER_JOIN_TEAM_LOCK_KEY = "hb:user:join:lock:%s";
+
+    /**
+     * 队伍信息缓存，%s 为队伍 id
+     */
+    String TEAM_KEY = "hb:team:%s";
+
+    /**
+     * 队伍信息缓存的过期时间（分钟）
+     */
+    long TEAM_TTL_MINUTES = 30;
+
+    /**
+     * 队伍信息缓存的版本号，清除缓存时自增，%s 为队伍 id
+     */
+    String TEAM_VERSION_KEY = "hb:team:version:%s";
+
+    /**
+     * 令牌吊销表（Hash：用户 id => 吊销时间），早于吊销时间签发的令牌失效
+     */
+    String AUTH_TOKEN_REVOKE_KEY = "hb:auth:revoke";
+
+    /**
+     * 用户信息本地缓存失效广播频道（消息为用户 id）
+     */
+    String USER_NEAR_CACHE_INVALIDATE_TOPIC = "hb:user:near:invalidate";
+
+    /**
+     * 用户信息缓存（脱敏后的字段），%s 为用户 id
+     */
+    String USER_PROFILE_KEY = "hb:user:profile:%s";
+
+    /**
+     * 用户信息缓存的过期时间（分钟）
+     */
+    long USER_PROFILE_TTL_MINUTES = 30;
+
+    /**
+     * 已注册账号的布隆过滤器
+     */
+    String USER_ACCOUNT_BLOOM_KEY = "hb:user:account:bloom";
+
+    /**
+     * 重建账号布隆过滤器的锁
+     */
+    String USER_ACCOUNT_BLOOM_LOCK_KEY = "hb:user:account:bloom:lock";
+
+    /**
+     * 账号布隆过滤器刚重建过的标记，多个节点同时启动时只重建一次
+     */
+    String USER_ACCOUNT_BLOOM_BUILT_KEY = "hb:user:account:bloom:built";
+
+    /**
+     * 接口限流令牌桶，依次为接口路径、维度（user/ip）和用户 id 或 IP
+     */
+    String RATE_LIMIT_KEY = "hb:rate:%s:%s:%s";
+
+    /**
+     * 上传文件内容哈希 => 对象键，依次为业务类型、用户 id 和 SHA-256
+     */
+    String FILE_HASH_KEY = "hb:file:hash:%s:%s:%s";
+
+    /**
+     * 上传文件哈希索引的过期时间（天），命中时续期
+     */
+    long FILE_HASH_TTL_DAYS = 30;
+
+    /**
+     * 头像缩略图（JSON：边长 => 访问地址），%s 为原图对象键
+     */
+    String FILE_THUMBNAIL_KEY = "hb:file:thumb:%s";
+
+    /**
+     * 缩略图记录的过期时间（天），过期后更换头像时重新生成
+     */
+    long FILE_THUMBNAIL_TTL_DAYS = 30;
+
+    /**
+     * 分片上传会话，%s 为分片上传 id
+     */
+    String FILE_MULTIPART_KEY = "hb:file:multipart:%s";
+
+    /**
+     * 分片上传已完成的分片（Hash：分片序号 => ETag），%s 为分片上传 id
+     */
+    String FILE_MULTIPART_PARTS_KEY = "hb:file:multipart:%s:parts";
+
+    /**
+     * 分片上传会话的过期时间（小时）
+     */
+    long FILE_MULTIPART_TTL_HOURS = 24;
+
+    /**
+     * 批量导入用户的断点（最后一个已提交的行号），%s 为导入文件标识
+     */
+    String USER_IMPORT_CHECKPOINT_KEY = "hb:import:user:checkpoint:%s";
+
+    /**
+     * 导入断点的过期时间（天）
+     */
+    long USER_IMPORT_CHECKPOINT_TTL_DAYS = 7;
+
+}
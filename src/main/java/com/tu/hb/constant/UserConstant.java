@@ -10,6 +10,16 @@ public interface UserConstant {
      */
     String USER_LOGIN_STATE = "userLoginState";
 
+    /**
+     * 令牌请求头
+     */
+    String AUTH_HEADER = "Authorization";
+
+    /**
+     * 令牌前缀
+     */
+    String AUTH_TOKEN_PREFIX = "Bearer ";
+
     /**
      * 管理员权限
      */
@@ -20,4 +30,24 @@ public interface UserConstant {
      */
     int DEFAULT_ROLE = 0;
 
+    /**
+     * 搜索用户默认每页条数
+     */
+    int SEARCH_DEFAULT_PAGE_SIZE = 20;
+
+    /**
+     * 搜索用户每页条数上限
+     */
+    int SEARCH_MAX_PAGE_SIZE = 100;
+
+    /**
+     * 搜索用户：前缀匹配，走 username 索引
+     */
+    String SEARCH_MATCH_PREFIX = "prefix";
+
+    /**
+     * 搜索用户：包含匹配，走 username 的 ngram 全文索引
+     */
+    String SEARCH_MATCH_CONTAINS = "contains";
+
 }
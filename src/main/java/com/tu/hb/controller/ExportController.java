@@ -0,0 +1,92 @@
+package com.tu.hb.controller;
+
+import com.tu.hb.common.ErrorCode;
+import com.tu.hb.constant.ExportFormatEnum;
+import com.tu.hb.exception.BusinessException;
+import com.tu.hb.service.ExportService;
+import com.tu.hb.service.UserService;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import javax.annotation.Resource;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.concurrent.Semaphore;
+
+/**
+ * 数据导出接口（仅管理员），直接下载文件
+ */
+@RestController
+@RequestMapping("/export")
+public class ExportController {
+
+    /**
+     * 同时进行的导出数，每个导出在整个过程中占用一个数据库连接
+     */
+    private static final int MAX_CONCURRENT_EXPORT = 2;
+
+    /**
+     * 在进入导出事务之前获取许可，被拒绝的请求不会占用数据库连接
+     */
+    private final Semaphore exportSemaphore = new Semaphore(MAX_CONCURRENT_EXPORT);
+
+    @Resource
+    private UserService userService;
+
+    @Resource
+    private ExportService exportService;
+
+    /**
+     * 导出用户
+     *
+     * @param format csv | xlsx
+     */
+    @GetMapping("/user")
+    public void exportUsers(@RequestParam(defaultValue = "csv") String format, HttpServletRequest request,
+                            HttpServletResponse response) throws IOException {
+        ExportFormatEnum exportFormat = getExportFormat(format, request);
+        acquire();
+        try {
+            exportService.exportUsers(exportFormat, response);
+        } finally {
+            exportSemaphore.release();
+        }
+    }
+
+    /**
+     * 导出队伍
+     *
+     * @param format csv | xlsx
+     */
+    @GetMapping("/team")
+    public void exportTeams(@RequestParam(defaultValue = "csv") String format, HttpServletRequest request,
+                            HttpServletResponse response) throws IOException {
+        ExportFormatEnum exportFormat = getExportFormat(format, request);
+        acquire();
+        try {
+            exportService.exportTeams(exportFormat, response);
+        } finally {
+            exportSemaphore.release();
+        }
+    }
+
+    private void acquire() {
+        if (!exportSemaphore.tryAcquire()) {
+            throw new BusinessException(ErrorCode.TOO_MANY_REQUEST, "导出任务过多，请稍后再试");
+        }
+    }
+
+    private ExportFormatEnum getExportFormat(String format, HttpServletRequest request) {
+        if (!userService.isAdmin(request)) {
+            throw new BusinessException(ErrorCode.NO_AUTH);
+        }
+        ExportFormatEnum exportFormat = ExportFormatEnum.getEnumByValue(format);
+        if (exportFormat == null) {
+            throw new BusinessException(ErrorCode.PARAMS_ERROR, "导出格式错误");
+        }
+        return exportFormat;
+    }
+}
@@ -1,15 +1,22 @@
 package com.tu.hb.controller;
 
-import cn.hutool.core.io.FileUtil;
 import com.tu.hb.common.BaseResponse;
 import com.tu.hb.common.ErrorCode;
 import com.tu.hb.common.ResultUtils;
-import com.tu.hb.constant.FileConstant;
 import com.tu.hb.constant.FileUploadBizEnum;
 import com.tu.hb.exception.BusinessException;
-import com.tu.hb.manage.CosManager;
+import com.tu.hb.manage.AvatarThumbnailManager;
+import com.tu.hb.manage.FileDedupManager;
+import com.tu.hb.manage.StorageBackend;
 import com.tu.hb.model.domain.User;
+import com.tu.hb.model.request.MultipartInitRequest;
+import com.tu.hb.model.request.MultipartUploadRequest;
+import com.tu.hb.model.request.PresignUploadRequest;
+import com.tu.hb.model.request.UploadCompleteRequest;
 import com.tu.hb.model.request.UploadFileRequest;
+import com.tu.hb.model.vo.MultipartUploadVO;
+import com.tu.hb.model.vo.PresignUploadVO;
+import com.tu.hb.service.FileService;
 import com.tu.hb.service.UserService;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.RandomStringUtils;
@@ -19,8 +26,8 @@ import org.springframework.web.multipart.MultipartFile;
 
 import javax.annotation.Resource;
 import javax.servlet.http.HttpServletRequest;
-import java.io.File;
-import java.util.Arrays;
+import java.io.IOException;
+import java.io.InputStream;
 
 /**
  * 文件接口
@@ -31,11 +38,16 @@ import java.util.Arrays;
 @Slf4j
 public class FileController {
 
-    final long ONE_M = 1024 * 1024L;
     @Resource
     private UserService userService;
     @Resource
-    private CosManager cosManager;
+    private StorageBackend storageBackend;
+    @Resource
+    private FileDedupManager fileDedupManager;
+    @Resource
+    private FileService fileService;
+    @Resource
+    private AvatarThumbnailManager avatarThumbnailManager;
     @Resource
     private RedisTemplate<String, Object> redisTemplate;
 
@@ -54,52 +66,161 @@ public class FileController {
         if (fileUploadBizEnum == null) {
             throw new BusinessException(ErrorCode.PARAMS_ERROR);
         }
-        validFile(multipartFile, fileUploadBizEnum);
+        fileUploadBizEnum.validFile(multipartFile.getSize(), multipartFile.getOriginalFilename());
         User loginUser = userService.getLoginUser(request);
+        // 相同内容已上传过时直接返回已有地址（文件小于 multipart 阈值时在内存中，多读一遍的开销很小）
+        String hash;
+        try (InputStream inputStream = multipartFile.getInputStream()) {
+            hash = fileDedupManager.hash(inputStream);
+        } catch (IOException e) {
+            log.error("file hash error", e);
+            throw new BusinessException(ErrorCode.SYSTEM_ERROR, "上传失败");
+        }
+        String existKey = fileDedupManager.getKey(fileUploadBizEnum.getValue(), loginUser.getId(), hash);
+        if (existKey != null) {
+            return ResultUtils.success(storageBackend.getUrl(existKey));
+        }
         // 文件目录：根据业务、用户来划分
         String uuid = RandomStringUtils.randomAlphanumeric(8);
         String filename = uuid + "-" + multipartFile.getOriginalFilename();
         String filepath = String.format("/%s/%s/%s", fileUploadBizEnum.getValue(), loginUser.getId(), filename);
-        File file = null;
-        try {
-            // 上传文件
-            file = File.createTempFile(filepath, null);
-            multipartFile.transferTo(file);
-            cosManager.putObject(filepath, file);
+        // 上传文件：直接把请求中的文件流传给对象存储，不写本地临时文件
+        try (InputStream inputStream = multipartFile.getInputStream()) {
+            storageBackend.putObject(filepath, inputStream, multipartFile.getSize(), multipartFile.getContentType());
+            String winnerKey = fileDedupManager.record(fileUploadBizEnum.getValue(), loginUser.getId(), hash, filepath);
+            if (!filepath.equals(winnerKey)) {
+                // 并发上传了相同内容，使用先记录的对象，删除本次上传的重复对象
+                deleteQuietly(filepath);
+                return ResultUtils.success(storageBackend.getUrl(winnerKey));
+            }
+            // 文件已在内存中，直接交给缩略图线程池，不再从存储读取
+            avatarThumbnailManager.generateAsync(filepath, multipartFile.getBytes());
             // 返回可访问地址
-            return ResultUtils.success(FileConstant.COS_HOST + filepath);
+            return ResultUtils.success(storageBackend.getUrl(filepath));
         } catch (Exception e) {
             log.error("file upload error, filepath = " + filepath, e);
             throw new BusinessException(ErrorCode.SYSTEM_ERROR, "上传失败");
-        } finally {
-            if (file != null) {
-                // 删除临时文件
-                boolean delete = file.delete();
-                if (!delete) {
-                    log.error("file delete error, filepath = {}", filepath);
-                }
-            }
         }
     }
 
     /**
-     * 校验文件
+     * 申请预签名上传地址，客户端直接上传到对象存储
      *
-     * @param multipartFile
-     * @param fileUploadBizEnum 业务类型
+     * @param presignUploadRequest
+     * @param request
+     * @return
      */
-    private void validFile(MultipartFile multipartFile, FileUploadBizEnum fileUploadBizEnum) {
-        // 文件大小
-        long fileSize = multipartFile.getSize();
-        // 文件后缀
-        String fileSuffix = FileUtil.getSuffix(multipartFile.getOriginalFilename());
-        if (FileUploadBizEnum.USER_AVATAR.equals(fileUploadBizEnum)) {
-            if (fileSize > ONE_M) {
-                throw new BusinessException(ErrorCode.PARAMS_ERROR, "文件大小不能超过 1M");
-            }
-            if (!Arrays.asList("jpeg", "jpg", "svg", "png", "webp").contains(fileSuffix)) {
-                throw new BusinessException(ErrorCode.PARAMS_ERROR, "文件类型错误");
-            }
+    @PostMapping("/presign")
+    public BaseResponse<PresignUploadVO> presignUpload(@RequestBody PresignUploadRequest presignUploadRequest, HttpServletRequest request) {
+        if (presignUploadRequest == null) {
+            throw new BusinessException(ErrorCode.PARAMS_ERROR);
+        }
+        User loginUser = userService.getLoginUser(request);
+        return ResultUtils.success(fileService.presignUpload(presignUploadRequest, loginUser));
+    }
+
+    /**
+     * 直传完成回调
+     *
+     * @param uploadCompleteRequest
+     * @param request
+     * @return 可访问地址
+     */
+    @PostMapping("/complete")
+    public BaseResponse<String> completeUpload(@RequestBody UploadCompleteRequest uploadCompleteRequest, HttpServletRequest request) {
+        if (uploadCompleteRequest == null) {
+            throw new BusinessException(ErrorCode.PARAMS_ERROR);
+        }
+        User loginUser = userService.getLoginUser(request);
+        return ResultUtils.success(fileService.completeUpload(uploadCompleteRequest, loginUser));
+    }
+
+    /**
+     * 初始化分片上传
+     *
+     * @param multipartInitRequest
+     * @param request
+     * @return 分片大小、分片数量和上传 id
+     */
+    @PostMapping("/multipart/init")
+    public BaseResponse<MultipartUploadVO> initMultipartUpload(@RequestBody MultipartInitRequest multipartInitRequest, HttpServletRequest request) {
+        if (multipartInitRequest == null) {
+            throw new BusinessException(ErrorCode.PARAMS_ERROR);
+        }
+        User loginUser = userService.getLoginUser(request);
+        return ResultUtils.success(fileService.initMultipartUpload(multipartInitRequest, loginUser));
+    }
+
+    /**
+     * 上传分片：请求体就是分片内容（不使用 multipart/form-data，服务端不缓存整个请求），可并行上传
+     *
+     * @param uploadId
+     * @param partNumber
+     * @param request
+     * @return
+     */
+    @PutMapping("/multipart/part")
+    public BaseResponse<Boolean> uploadPart(@RequestParam("uploadId") String uploadId, @RequestParam("partNumber") Integer partNumber,
+                                            HttpServletRequest request) {
+        User loginUser = userService.getLoginUser(request);
+        try (InputStream inputStream = request.getInputStream()) {
+            return ResultUtils.success(fileService.uploadPart(uploadId, partNumber, inputStream, request.getContentLengthLong(), loginUser));
+        } catch (IOException e) {
+            log.error("upload part error, uploadId = {}, partNumber = {}", uploadId, partNumber, e);
+            throw new BusinessException(ErrorCode.SYSTEM_ERROR, "上传失败");
+        }
+    }
+
+    /**
+     * 查询分片上传进度（断点续传）
+     *
+     * @param uploadId
+     * @param request
+     * @return
+     */
+    @GetMapping("/multipart/status")
+    public BaseResponse<MultipartUploadVO> getMultipartUpload(@RequestParam("uploadId") String uploadId, HttpServletRequest request) {
+        User loginUser = userService.getLoginUser(request);
+        return ResultUtils.success(fileService.getMultipartUpload(uploadId, loginUser));
+    }
+
+    /**
+     * 合并分片
+     *
+     * @param multipartUploadRequest
+     * @param request
+     * @return 可访问地址
+     */
+    @PostMapping("/multipart/complete")
+    public BaseResponse<String> completeMultipartUpload(@RequestBody MultipartUploadRequest multipartUploadRequest, HttpServletRequest request) {
+        if (multipartUploadRequest == null) {
+            throw new BusinessException(ErrorCode.PARAMS_ERROR);
+        }
+        User loginUser = userService.getLoginUser(request);
+        return ResultUtils.success(fileService.completeMultipartUpload(multipartUploadRequest.getUploadId(), loginUser));
+    }
+
+    /**
+     * 取消分片上传
+     *
+     * @param multipartUploadRequest
+     * @param request
+     * @return
+     */
+    @PostMapping("/multipart/abort")
+    public BaseResponse<Boolean> abortMultipartUpload(@RequestBody MultipartUploadRequest multipartUploadRequest, HttpServletRequest request) {
+        if (multipartUploadRequest == null) {
+            throw new BusinessException(ErrorCode.PARAMS_ERROR);
+        }
+        User loginUser = userService.getLoginUser(request);
+        return ResultUtils.success(fileService.abortMultipartUpload(multipartUploadRequest.getUploadId(), loginUser));
+    }
+
+    private void deleteQuietly(String filepath) {
+        try {
+            storageBackend.deleteObject(filepath);
+        } catch (Exception e) {
+            log.error("delete duplicate file error, filepath = {}", filepath, e);
         }
     }
 }
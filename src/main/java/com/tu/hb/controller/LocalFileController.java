@@ -0,0 +1,197 @@
+package com.tu.hb.controller;
+
+import com.tu.hb.common.BaseResponse;
+import com.tu.hb.common.ErrorCode;
+import com.tu.hb.common.ResultUtils;
+import com.tu.hb.config.StorageConfig;
+import com.tu.hb.exception.BusinessException;
+import com.tu.hb.manage.LocalStorageBackend;
+import com.tu.hb.model.dto.StorageObjectInfo;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.annotation.Resource;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * 本地存储文件接口（hb.storage.type = local 时启用）
+ *
+ */
+@RestController
+@RequestMapping("/file/local")
+@ConditionalOnProperty(prefix = "hb.storage", name = "type", havingValue = StorageConfig.TYPE_LOCAL)
+@Slf4j
+public class LocalFileController {
+
+    /**
+     * Tomcat sendfile 请求属性：连接器支持时由 Tomcat 设置，应用设置文件名和范围后由连接器直接从磁盘发送
+     */
+    private static final String SENDFILE_SUPPORT_ATTR = "org.apache.tomcat.sendfile.support";
+
+    private static final String SENDFILE_FILENAME_ATTR = "org.apache.tomcat.sendfile.filename";
+
+    private static final String SENDFILE_START_ATTR = "org.apache.tomcat.sendfile.start";
+
+    private static final String SENDFILE_END_ATTR = "org.apache.tomcat.sendfile.end";
+
+    private static final String CACHE_CONTROL = "public, max-age=86400";
+
+    private static final AntPathMatcher PATH_MATCHER = new AntPathMatcher();
+
+    @Resource
+    private LocalStorageBackend localStorageBackend;
+
+    /**
+     * 下载文件，支持单段 Range 和 If-None-Match
+     *
+     * @param request
+     * @param response
+     * @throws IOException
+     */
+    @GetMapping("/**")
+    public void getFile(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        String key = extractKey(request);
+        StorageObjectInfo storageObjectInfo = localStorageBackend.getObjectInfo(key);
+        if (storageObjectInfo == null) {
+            response.setStatus(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        String eTag = "\"" + storageObjectInfo.getETag() + "\"";
+        response.setHeader(HttpHeaders.ETAG, eTag);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL);
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        response.setDateHeader(HttpHeaders.LAST_MODIFIED, storageObjectInfo.getLastModified().getTime());
+        if (eTag.equals(request.getHeader(HttpHeaders.IF_NONE_MATCH))) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+        long size = storageObjectInfo.getContentLength();
+        long start = 0;
+        // 不含 end
+        long end = size;
+        String range = request.getHeader(HttpHeaders.RANGE);
+        if (StringUtils.isNotBlank(range)) {
+            long[] parsed = parseRange(range, size);
+            if (parsed == null) {
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + size);
+                response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                return;
+            }
+            start = parsed[0];
+            end = parsed[1];
+            response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+            response.setHeader(HttpHeaders.CONTENT_RANGE, String.format("bytes %d-%d/%d", start, end - 1, size));
+        }
+        if (storageObjectInfo.getContentType() != null) {
+            response.setContentType(storageObjectInfo.getContentType());
+        }
+        response.setContentLengthLong(end - start);
+        Path path = localStorageBackend.resolve(key);
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT_ATTR))) {
+            // 零拷贝：由 Tomcat 在响应提交后用 sendfile 发送，数据不经过 JVM 堆
+            request.setAttribute(SENDFILE_FILENAME_ATTR, path.toString());
+            request.setAttribute(SENDFILE_START_ATTR, start);
+            request.setAttribute(SENDFILE_END_ATTR, end);
+            return;
+        }
+        try (FileChannel fileChannel = FileChannel.open(path, StandardOpenOption.READ)) {
+            WritableByteChannel outputChannel = Channels.newChannel(response.getOutputStream());
+            long position = start;
+            while (position < end) {
+                long transferred = fileChannel.transferTo(position, end - position, outputChannel);
+                if (transferred <= 0) {
+                    break;
+                }
+                position += transferred;
+            }
+        }
+    }
+
+    /**
+     * 预签名直传
+     *
+     * @param expires
+     * @param length
+     * @param signature
+     * @param request
+     * @return
+     * @throws IOException
+     */
+    @PutMapping("/**")
+    public BaseResponse<Boolean> putFile(@RequestParam("expires") long expires, @RequestParam("length") long length,
+                                         @RequestParam("signature") String signature, HttpServletRequest request) throws IOException {
+        String key = extractKey(request);
+        if (!localStorageBackend.verifySignature(key, expires, length, signature)) {
+            throw new BusinessException(ErrorCode.NO_AUTH, "签名无效或已过期");
+        }
+        if (request.getContentLengthLong() != length) {
+            throw new BusinessException(ErrorCode.PARAMS_ERROR, "文件大小不一致");
+        }
+        try (InputStream inputStream = request.getInputStream()) {
+            localStorageBackend.putObject(key, inputStream, length, request.getContentType());
+        }
+        return ResultUtils.success(true);
+    }
+
+    private String extractKey(HttpServletRequest request) {
+        String path = (String) request.getAttribute(HandlerMapping.PATH_WITHIN_HANDLER_MAPPING_ATTRIBUTE);
+        String pattern = (String) request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String key = PATH_MATCHER.extractPathWithinPattern(pattern, path);
+        if (StringUtils.isBlank(key)) {
+            throw new BusinessException(ErrorCode.PARAMS_ERROR);
+        }
+        return "/" + key;
+    }
+
+    /**
+     * 解析单段 Range：bytes=start-end | bytes=start- | bytes=-suffix
+     *
+     * @return [start, end)，不可满足时返回 null
+     */
+    private long[] parseRange(String range, long size) {
+        if (!range.startsWith("bytes=") || range.contains(",")) {
+            return null;
+        }
+        String spec = range.substring("bytes=".length()).trim();
+        int index = spec.indexOf('-');
+        if (index < 0) {
+            return null;
+        }
+        try {
+            String startText = spec.substring(0, index).trim();
+            String endText = spec.substring(index + 1).trim();
+            long start;
+            long end;
+            if (startText.isEmpty()) {
+                long suffix = Long.parseLong(endText);
+                if (suffix <= 0) {
+                    return null;
+                }
+                start = Math.max(0, size - suffix);
+                end = size;
+            } else {
+                start = Long.parseLong(startText);
+                end = endText.isEmpty() ? size : Math.min(size, Long.parseLong(endText) + 1);
+            }
+            if (start >= size || start >= end) {
+                return null;
+            }
+            return new long[]{start, end};
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.tu.hb.controller;
+
+import com.tu.hb.common.BaseResponse;
+import com.tu.hb.common.ErrorCode;
+import com.tu.hb.common.ResultUtils;
+import com.tu.hb.exception.BusinessException;
+import com.tu.hb.manage.BulkheadRegistry;
+import com.tu.hb.model.vo.BulkheadStatsVO;
+import com.tu.hb.service.UserService;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import javax.annotation.Resource;
+import javax.servlet.http.HttpServletRequest;
+import java.util.Map;
+
+/**
+ * 运行状态接口（仅管理员）
+ */
+@RestController
+@RequestMapping("/monitor")
+public class MonitorController {
+
+    @Resource
+    private UserService userService;
+
+    @Resource
+    private BulkheadRegistry bulkheadRegistry;
+
+    /**
+     * 舱壁隔离线程池的饱和度
+     */
+    @GetMapping("/bulkhead")
+    public BaseResponse<Map<String, BulkheadStatsVO>> getBulkheadStats(HttpServletRequest request) {
+        if (!userService.isAdmin(request)) {
+            throw new BusinessException(ErrorCode.NO_AUTH);
+        }
+        return ResultUtils.success(bulkheadRegistry.getStats());
+    }
+}
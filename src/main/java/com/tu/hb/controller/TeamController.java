@@ -104,17 +104,8 @@ public class TeamController {
         // 查询队伍列表
         List<TeamUserVO> teamList = teamService.listTeams(teamQuery, loginUser);
         // 判断用户是否已加入队伍
+        getHasJoinTeam(loginUser, teamList);
         List<Long> teamIdList = teamList.stream().map(TeamUserVO::getId).collect(Collectors.toList());
-        QueryWrapper<UserTeam> userTeamQueryWrapper = new QueryWrapper<>();
-        userTeamQueryWrapper.eq("userId", loginUser.getId());
-        userTeamQueryWrapper.in("teamId", teamIdList);
-        List<UserTeam> userTeamList = userTeamService.list(userTeamQueryWrapper);
-        // 将已加入的队伍id取出
-        Set<Long> hasJoinTeamIdList = userTeamList.stream().map(UserTeam::getTeamId).collect(Collectors.toSet());
-        teamList.forEach(team -> {
-            boolean hasJoin = hasJoinTeamIdList.contains(team.getId());
-            team.setHasJoin(hasJoin);
-        });
         // 查询已加入队伍的人数
         QueryWrapper<UserTeam> hasJoinNumQueryWrapper = new QueryWrapper<>();
         hasJoinNumQueryWrapper.in("teamId", teamIdList);
@@ -209,19 +200,13 @@ public class TeamController {
             throw new BusinessException(ErrorCode.PARAMS_ERROR);
         }
         User loginUser = userService.getLoginUser(request);
-        // 根据用户id去关系表中查出已加入队伍信息
-        QueryWrapper<UserTeam> queryWrapper = new QueryWrapper<>();
-        queryWrapper.eq("userId", loginUser.getId());
-        List<UserTeam> userTeamList = userTeamService.list(queryWrapper);
+        // 取出已加入的队伍id集合
+        Set<Long> joinTeamIdSet = userTeamService.listJoinTeamIds(loginUser.getId());
         // 如果未加入队伍，返回空列表
-        if (userTeamList.size() <= 0) {
+        if (joinTeamIdSet.isEmpty()) {
             return ResultUtils.success(new ArrayList<TeamUserVO>());
         }
-        // 根据队伍id分组
-        Map<Long, List<UserTeam>> listMap = userTeamList.stream()
-                .collect(Collectors.groupingBy(UserTeam::getTeamId));
-        // 取出不重复的队伍id集合
-        List<Long> idList = new ArrayList<>(listMap.keySet());
+        List<Long> idList = new ArrayList<>(joinTeamIdSet);
         teamQuery.setIdList(idList);
         List<TeamUserVO> teamList = teamService.listTeamsByJoin(teamQuery, loginUser);
         for (TeamUserVO teamUserVO : teamList) {
@@ -238,13 +223,8 @@ public class TeamController {
      * @param teamList
      */
     private void getHasJoinTeam(User loginUser, List<TeamUserVO> teamList) {
-        // 判断用户是否已加入队伍
-        List<Long> teamIdList = teamList.stream().map(TeamUserVO::getId).collect(Collectors.toList());
-        QueryWrapper<UserTeam> userTeamQueryWrapper = new QueryWrapper<>();
-        userTeamQueryWrapper.eq("userId", loginUser.getId());
-        userTeamQueryWrapper.in("teamId", teamIdList);
-        // 将已加入的队伍id取出
-        Set<Long> hasJoinTeamIdList = userTeamService.list(userTeamQueryWrapper).stream().map(UserTeam::getTeamId).collect(Collectors.toSet());
+        // 判断用户是否已加入队伍（已加入的队伍id集合走缓存，内存中判断）
+        Set<Long> hasJoinTeamIdList = userTeamService.listJoinTeamIds(loginUser.getId());
         teamList.forEach(team -> {
             boolean hasJoin = hasJoinTeamIdList.contains(team.getId());
             team.setHasJoin(hasJoin);
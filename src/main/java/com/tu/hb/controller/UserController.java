@@ -2,14 +2,22 @@ package com.tu.hb.controller;
 
 import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.tu.hb.annotation.Bulkhead;
 import com.tu.hb.common.BaseResponse;
 import com.tu.hb.common.ErrorCode;
 import com.tu.hb.common.ResultUtils;
+import com.tu.hb.config.AuthConfig;
 import com.tu.hb.exception.BusinessException;
+import com.tu.hb.manage.AuthTokenManager;
+import com.tu.hb.manage.UserProfileCache;
+import com.tu.hb.mapper.UserCardColumns;
 import com.tu.hb.model.domain.User;
 import com.tu.hb.model.request.UserLoginRequest;
 import com.tu.hb.model.request.UserRegisterRequest;
+import com.tu.hb.model.request.UserSearchRequest;
+import com.tu.hb.model.request.UserTagsDeltaRequest;
 import com.tu.hb.model.request.UserTagsUpdateRequest;
+import com.tu.hb.model.vo.CursorPageVO;
 import com.tu.hb.service.UserService;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
@@ -20,12 +28,14 @@ import org.springframework.web.bind.annotation.*;
 
 import javax.annotation.Resource;
 import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
-import java.util.stream.Collectors;
 
 import static com.tu.hb.constant.UserConstant.ADMIN_ROLE;
-import static com.tu.hb.constant.UserConstant.USER_LOGIN_STATE;
+import static com.tu.hb.constant.UserConstant.AUTH_HEADER;
+import static com.tu.hb.constant.UserConstant.AUTH_TOKEN_PREFIX;
 
 /**
  * 用户接口
@@ -43,6 +53,15 @@ public class UserController {
     @Resource
     RedisTemplate redisTemplate;
 
+    @Resource
+    private AuthConfig authConfig;
+
+    @Resource
+    private AuthTokenManager authTokenManager;
+
+    @Resource
+    private UserProfileCache userProfileCache;
+
     @PostMapping("/register")
     public BaseResponse<Long> userRegister(@RequestBody UserRegisterRequest userRegisterRequest) {
         if (userRegisterRequest == null) {
@@ -60,7 +79,7 @@ public class UserController {
     }
 
     @PostMapping("/login")
-    public BaseResponse<User> userLogin(@RequestBody UserLoginRequest userLoginRequest, HttpServletRequest request) {
+    public BaseResponse<User> userLogin(@RequestBody UserLoginRequest userLoginRequest, HttpServletRequest request, HttpServletResponse response) {
         if (userLoginRequest == null) {
             throw new BusinessException(ErrorCode.PARAMS_ERROR);
         }
@@ -70,6 +89,10 @@ public class UserController {
             throw new BusinessException(ErrorCode.PARAMS_ERROR);
         }
         User user = userService.userLogin(userAccount, userPassword, request);
+        // 令牌模式通过响应头返回令牌，之后的请求携带 Authorization: Bearer <token>
+        if (authConfig.isTokenMode()) {
+            response.setHeader(AUTH_HEADER, AUTH_TOKEN_PREFIX + authTokenManager.createToken(user));
+        }
         return ResultUtils.success(user);
     }
 
@@ -84,41 +107,35 @@ public class UserController {
 
     @GetMapping("/current")
     public BaseResponse<User> getCurrentUser(HttpServletRequest request) {
-        Object userObj = request.getSession().getAttribute(USER_LOGIN_STATE);
-        User currentUser = (User) userObj;
-        if (currentUser == null) {
-            throw new BusinessException(ErrorCode.NOT_LOGIN);
-        }
+        User currentUser = userService.getLoginUser(request);
         Long id = currentUser.getId();
         //todo 校验用户是否合法
-        User user = userService.getById(id);
-        User safetyUser = userService.setSafetyUser(user);
+        User safetyUser = userService.getUserProfile(id);
+        if (safetyUser == null) {
+            throw new BusinessException(ErrorCode.NOT_LOGIN);
+        }
         return ResultUtils.success(safetyUser);
     }
 
     @GetMapping("/search")
-    public BaseResponse<List<User>> searchUsers(String username, HttpServletRequest request) {
+    @Bulkhead("userSearch")
+    public CompletableFuture<BaseResponse<CursorPageVO<User>>> searchUsers(UserSearchRequest userSearchRequest, HttpServletRequest request) {
         //仅管理员可查询
         if (!userService.isAdmin(request)) {
             throw new BusinessException(ErrorCode.NO_AUTH);
         }
-        QueryWrapper<User> queryWrapper = new QueryWrapper<>();
-        if (StringUtils.isNotBlank(username)) {
-            queryWrapper.like("username", username);
-        }
-        List<User> userList = userService.list(queryWrapper);
-
-        List<User> users = userList.stream().map(user -> userService.setSafetyUser(user)).collect(Collectors.toList());
-        return ResultUtils.success(users);
+        CursorPageVO<User> userPage = userService.searchUsers(userSearchRequest);
+        return CompletableFuture.completedFuture(ResultUtils.success(userPage));
     }
 
     @GetMapping("/search/tags")
-    public BaseResponse<List<User>> searchUsersByTags(@RequestParam(required = false) List<String> tagNameList){
+    @Bulkhead("userSearch")
+    public CompletableFuture<BaseResponse<List<User>>> searchUsersByTags(@RequestParam(required = false) List<String> tagNameList){
         if (CollectionUtils.isEmpty(tagNameList)) {
             throw new BusinessException(ErrorCode.PARAMS_ERROR);
         }
         List<User> userList = userService.searchUserByTags(tagNameList);
-        return ResultUtils.success(userList);
+        return CompletableFuture.completedFuture(ResultUtils.success(userList));
     }
 
     @PostMapping("/update/tags")
@@ -131,6 +148,16 @@ public class UserController {
         return ResultUtils.success(result);
     }
 
+    @PostMapping("/update/tags/delta")
+    public BaseResponse<Boolean> updateUserTagsDelta(@RequestBody UserTagsDeltaRequest tagsDeltaRequest, HttpServletRequest request){
+        if (tagsDeltaRequest == null) {
+            throw new BusinessException(ErrorCode.PARAMS_ERROR);
+        }
+        User loginUser = userService.getLoginUser(request);
+        boolean result = userService.updateTagsDelta(tagsDeltaRequest, loginUser);
+        return ResultUtils.success(result);
+    }
+
     @GetMapping("/recommend")
     public BaseResponse<Page<User>> recommendUsers(int pageNum, int pageSize, HttpServletRequest request) {
         User loginUser = userService.getLoginUser(request);
@@ -141,14 +168,10 @@ public class UserController {
         if (userPage != null) {
             return ResultUtils.success(userPage);
         }
-        //无缓存，查询数据库
+        //无缓存，查询数据库（只查询卡片字段，不加载敏感信息）
         QueryWrapper<User> queryWrapper = new QueryWrapper<>();
+        queryWrapper.select(UserCardColumns.COLUMNS);
         Page<User> userList = userService.page(new Page<>(pageNum, pageSize), queryWrapper);
-        //用户信息脱敏
-        for (User user : userList.getRecords()) {
-            userService.setSafetyUser(user);
-            user.setUserPassword("");
-        }
         //写入缓存并设置过期时间
         try {
             valueOperations.set(redisKey, userList, 30000, TimeUnit.MILLISECONDS);
@@ -177,6 +200,7 @@ public class UserController {
             throw new BusinessException(ErrorCode.PARAMS_ERROR);
         }
         boolean result = userService.removeById(id);
+        userProfileCache.invalidateAfterCommit(id);
         return ResultUtils.success(result);
     }
 
@@ -187,13 +211,14 @@ public class UserController {
      * @return
      */
     @GetMapping("/match")
-    public BaseResponse<List<User>> matchUsers(long num, HttpServletRequest request){
+    @Bulkhead("userMatch")
+    public CompletableFuture<BaseResponse<List<User>>> matchUsers(long num, HttpServletRequest request){
         if (num <= 0 || num > 20) {
             throw new BusinessException(ErrorCode.PARAMS_ERROR);
         }
         User loginUser = userService.getLoginUser(request);
         List<User> userList = userService.matchUsers(num, loginUser);
-        return ResultUtils.success(userList);
+        return CompletableFuture.completedFuture(ResultUtils.success(userList));
     }
 
     @GetMapping("/{id}")
@@ -201,8 +226,11 @@ public class UserController {
         if (id <= 0) {
             throw new BusinessException(ErrorCode.PARAMS_ERROR);
         }
-        User user = userService.getById(id);
-        return ResultUtils.success(userService.setSafetyUser(user));
+        User user = userService.getUserProfile(id);
+        if (user == null) {
+            throw new BusinessException(ErrorCode.NULL_ERROR, "用户不存在");
+        }
+        return ResultUtils.success(user);
     }
 
 
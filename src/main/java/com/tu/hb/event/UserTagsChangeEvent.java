@@ -0,0 +1,43 @@
+package com.tu.hb.event;
+
+import lombok.Getter;
+import org.springframework.context.ApplicationEvent;
+
+import java.util.List;
+
+/**
+ * 用户标签变更事件（事务提交后发布），订阅方按增量维护标签相关的缓存
+ */
+@Getter
+public class UserTagsChangeEvent extends ApplicationEvent {
+
+    private static final long serialVersionUID = -3271840362954197611L;
+
+    /**
+     * 用户id
+     */
+    private final Long userId;
+
+    /**
+     * 新增的标签
+     */
+    private final List<String> addTags;
+
+    /**
+     * 移除的标签
+     */
+    private final List<String> removeTags;
+
+    /**
+     * 变更后的标签 json 列表
+     */
+    private final String tags;
+
+    public UserTagsChangeEvent(Object source, Long userId, List<String> addTags, List<String> removeTags, String tags) {
+        super(source);
+        this.userId = userId;
+        this.addTags = addTags;
+        this.removeTags = removeTags;
+        this.tags = tags;
+    }
+}
@@ -0,0 +1,108 @@
+package com.tu.hb.interceptor;
+
+import com.tu.hb.common.ErrorCode;
+import com.tu.hb.config.RateLimitConfig;
+import com.tu.hb.exception.BusinessException;
+import com.tu.hb.model.domain.User;
+import com.tu.hb.service.UserService;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.redisson.api.RRateLimiter;
+import org.redisson.api.RateIntervalUnit;
+import org.redisson.api.RateType;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.RedisException;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import javax.annotation.Resource;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.time.Duration;
+
+import static com.tu.hb.constant.RedisConstant.RATE_LIMIT_KEY;
+
+/**
+ * 接口限流拦截器
+ * 按用户 id 和 IP 分别维护令牌桶（Redisson RRateLimiter，多个节点共享），任一超限都拒绝请求
+ */
+@Component
+@Slf4j
+public class RateLimitInterceptor implements HandlerInterceptor {
+
+    /**
+     * 限流器不存在（过期被删除）时 Redisson 脚本抛出的错误信息
+     */
+    private static final String NOT_INITIALIZED_MESSAGE = "RateLimiter is not initialized";
+
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    @Resource
+    private RateLimitConfig rateLimitConfig;
+
+    @Resource
+    private RedissonClient redissonClient;
+
+    @Resource
+    private UserService userService;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!rateLimitConfig.isEnabled()) {
+            return true;
+        }
+        String path = request.getServletPath();
+        for (RateLimitConfig.Rule rule : rateLimitConfig.getRules()) {
+            if (!pathMatcher.match(rule.getPath(), path)) {
+                continue;
+            }
+            User loginUser = userService.getLoginUserOrNull(request);
+            if (loginUser != null && rule.getUserPermits() > 0
+                    && !tryAcquire(rule, "user", String.valueOf(loginUser.getId()), rule.getUserPermits())) {
+                throw new BusinessException(ErrorCode.TOO_MANY_REQUEST);
+            }
+            if (rule.getIpPermits() > 0 && !tryAcquire(rule, "ip", getClientIp(request), rule.getIpPermits())) {
+                throw new BusinessException(ErrorCode.TOO_MANY_REQUEST);
+            }
+            return true;
+        }
+        return true;
+    }
+
+    private boolean tryAcquire(RateLimitConfig.Rule rule, String dimension, String id, long permits) {
+        String key = String.format(RATE_LIMIT_KEY, rule.getPath(), dimension, id);
+        try {
+            RRateLimiter rateLimiter = redissonClient.getRateLimiter(key);
+            // trySetRate 只在速率不存在时写入（幂等），每次都调用：闲置过期后速率配置随限流器一起被删除
+            rateLimiter.trySetRate(RateType.OVERALL, permits, rule.getIntervalSeconds(), RateIntervalUnit.SECONDS);
+            boolean acquired;
+            try {
+                acquired = rateLimiter.tryAcquire();
+            } catch (RedisException e) {
+                if (!StringUtils.contains(e.getMessage(), NOT_INITIALIZED_MESSAGE)) {
+                    throw e;
+                }
+                // 设置速率和获取令牌之间限流器恰好过期，重新设置后重试
+                rateLimiter.trySetRate(RateType.OVERALL, permits, rule.getIntervalSeconds(), RateIntervalUnit.SECONDS);
+                acquired = rateLimiter.tryAcquire();
+            }
+            // 闲置的限流器自动过期
+            rateLimiter.expireAsync(Duration.ofSeconds(rule.getIntervalSeconds() * 2));
+            return acquired;
+        } catch (Exception e) {
+            // Redis 不可用时放行，不影响正常请求
+            log.error("redis rate limit error, key = {}", key, e);
+            return true;
+        }
+    }
+
+    /**
+     * 获取客户端 IP
+     * 不读取请求头：X-Forwarded-For 由可信代理通过 Tomcat RemoteIpValve 解析（server.forward-headers-strategy），
+     * 客户端自己伪造的地址不会被采用
+     */
+    private String getClientIp(HttpServletRequest request) {
+        return request.getRemoteAddr();
+    }
+}
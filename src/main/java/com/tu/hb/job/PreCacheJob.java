@@ -3,6 +3,7 @@ package com.tu.hb.job;
 import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.tu.hb.common.ResultUtils;
+import com.tu.hb.mapper.UserCardColumns;
 import com.tu.hb.model.domain.User;
 import com.tu.hb.service.UserService;
 import lombok.extern.slf4j.Slf4j;
@@ -49,6 +50,7 @@ public class PreCacheJob {
                 //写入缓存并设置过期时间
                 for (Long userId : mainUsers) {
                     QueryWrapper<User> queryWrapper = new QueryWrapper<>();
+                    queryWrapper.select(UserCardColumns.COLUMNS);
                     Page<User> userList = userService.page(new Page<>(1, 20), queryWrapper);
                     String redisKey = String.format("hb:user:recommend:%s", userId);
                     ValueOperations valueOperations = redisTemplate.opsForValue();
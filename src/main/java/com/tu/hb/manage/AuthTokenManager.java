@@ -0,0 +1,153 @@
+package com.tu.hb.manage;
+
+import com.tu.hb.common.ErrorCode;
+import com.tu.hb.config.AuthConfig;
+import com.tu.hb.exception.BusinessException;
+import com.tu.hb.model.domain.User;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.redisson.api.LocalCachedMapOptions;
+import org.redisson.api.RLocalCachedMap;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.LongCodec;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.Resource;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+import static com.tu.hb.constant.RedisConstant.AUTH_TOKEN_REVOKE_KEY;
+
+/**
+ * 无状态登录令牌管理
+ * 令牌格式：base64url(userId.userRole.签发时间) + "." + base64url(HMAC-SHA256 签名)，本地验签，无需查询 Redis 会话
+ */
+@Component
+@Slf4j
+public class AuthTokenManager {
+
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+
+    @Resource
+    private AuthConfig authConfig;
+
+    @Resource
+    private RedissonClient redissonClient;
+
+    /**
+     * 吊销表：本地缓存 + 变更广播，未吊销的用户（缓存未命中）也缓存在本地，验签时通常不访问 Redis
+     */
+    private RLocalCachedMap<Long, Long> revokeMap;
+
+    @PostConstruct
+    public void init() {
+        if (!authConfig.isTokenMode()) {
+            return;
+        }
+        if (StringUtils.isBlank(authConfig.getTokenSecret())) {
+            throw new IllegalStateException("hb.auth.token-secret must be set when hb.auth.mode is token");
+        }
+        LocalCachedMapOptions<Long, Long> options = LocalCachedMapOptions.<Long, Long>defaults()
+                .cacheSize(100000)
+                .storeCacheMiss(true)
+                .syncStrategy(LocalCachedMapOptions.SyncStrategy.UPDATE)
+                .reconnectionStrategy(LocalCachedMapOptions.ReconnectionStrategy.CLEAR);
+        revokeMap = redissonClient.getLocalCachedMap(AUTH_TOKEN_REVOKE_KEY, LongCodec.INSTANCE, options);
+    }
+
+    /**
+     * 签发令牌
+     *
+     * @param user 登录用户
+     * @return
+     */
+    public String createToken(User user) {
+        String payload = user.getId() + "." + user.getUserRole() + "." + System.currentTimeMillis();
+        Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+        return encoder.encodeToString(payload.getBytes(StandardCharsets.UTF_8)) + "." + encoder.encodeToString(sign(payload));
+    }
+
+    /**
+     * 校验令牌
+     *
+     * @param token
+     * @return 只包含 id 和 userRole 的登录用户，令牌无效时返回 null
+     */
+    public User parseToken(String token) {
+        if (StringUtils.isBlank(token)) {
+            return null;
+        }
+        String[] parts = token.split("\\.");
+        if (parts.length != 2) {
+            return null;
+        }
+        try {
+            Base64.Decoder decoder = Base64.getUrlDecoder();
+            String payload = new String(decoder.decode(parts[0]), StandardCharsets.UTF_8);
+            if (!MessageDigest.isEqual(sign(payload), decoder.decode(parts[1]))) {
+                return null;
+            }
+            String[] fields = payload.split("\\.");
+            if (fields.length != 3) {
+                return null;
+            }
+            long userId = Long.parseLong(fields[0]);
+            int userRole = Integer.parseInt(fields[1]);
+            long issueTime = Long.parseLong(fields[2]);
+            if (System.currentTimeMillis() - issueTime > TimeUnit.SECONDS.toMillis(authConfig.getTokenExpireSeconds())) {
+                return null;
+            }
+            Long revokeTime = revokeMap.get(userId);
+            if (revokeTime != null && issueTime <= revokeTime) {
+                return null;
+            }
+            User user = new User();
+            user.setId(userId);
+            user.setUserRole(userRole);
+            return user;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * 吊销用户在此之前签发的所有令牌（退出登录、禁用账号）
+     *
+     * @param userId
+     */
+    public void revoke(Long userId) {
+        revokeMap.fastPut(userId, System.currentTimeMillis());
+    }
+
+    /**
+     * 清理过期的吊销记录：早于令牌有效期的记录已没有作用
+     */
+    @Scheduled(fixedDelay = 3600000)
+    public void cleanExpiredRevoke() {
+        if (revokeMap == null) {
+            return;
+        }
+        long expireBefore = System.currentTimeMillis() - TimeUnit.SECONDS.toMillis(authConfig.getTokenExpireSeconds());
+        revokeMap.readAllEntrySet().stream()
+                .filter(entry -> entry.getValue() < expireBefore)
+                .forEach(entry -> revokeMap.fastRemove(entry.getKey()));
+    }
+
+    private byte[] sign(String payload) {
+        try {
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(new SecretKeySpec(authConfig.getTokenSecret().getBytes(StandardCharsets.UTF_8), HMAC_ALGORITHM));
+            return mac.doFinal(payload.getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException e) {
+            log.error("token sign error", e);
+            throw new BusinessException(ErrorCode.SYSTEM_ERROR, "令牌签名失败");
+        }
+    }
+}
@@ -0,0 +1,263 @@
+package com.tu.hb.manage;
+
+import cn.hutool.core.io.IoUtil;
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.baomidou.mybatisplus.core.conditions.update.UpdateWrapper;
+import com.google.gson.Gson;
+import com.tu.hb.constant.FileConstant;
+import com.tu.hb.constant.FileUploadBizEnum;
+import com.tu.hb.mapper.TeamMapper;
+import com.tu.hb.mapper.UserMapper;
+import com.tu.hb.model.domain.Team;
+import com.tu.hb.model.domain.User;
+import com.tu.hb.utils.ImageUtils;
+import com.tu.hb.utils.TransactionUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.math.NumberUtils;
+import org.redisson.api.RBucket;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import javax.annotation.Resource;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static com.tu.hb.constant.RedisConstant.*;
+
+/**
+ * 头像缩略图：在有界线程池中异步解码原图，生成多个尺寸的 JPEG 存到派生键（原图键_边长.jpg），
+ * 并把 边长 => 地址 记录到用户或队伍的 avatarVariants 字段，列表页按显示尺寸取图
+ * 线程池满时丢弃任务，页面回退到原图，更换头像时会重新生成
+ */
+@Component
+@Slf4j
+public class AvatarThumbnailManager {
+
+    /**
+     * 解码的像素上限，超过时不生成缩略图
+     */
+    private static final long MAX_PIXELS = 4096L * 4096L;
+
+    private static final float JPEG_QUALITY = 0.85f;
+
+    private static final String THUMBNAIL_CONTENT_TYPE = "image/jpeg";
+
+    @Resource
+    private StorageBackend storageBackend;
+
+    @Resource
+    private RedissonClient redissonClient;
+
+    @Resource
+    private UserMapper userMapper;
+
+    @Resource
+    private TeamMapper teamMapper;
+
+    @Resource
+    private UserProfileCache userProfileCache;
+
+    @Resource
+    private RedisTemplate<String, Object> redisTemplate;
+
+    /**
+     * 解码和缩放是 CPU 密集型任务，线程数固定，不占用请求线程
+     */
+    private final ThreadPoolExecutor executor = new ThreadPoolExecutor(2, 2, 60, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(200), new CustomizableThreadFactory("avatar-thumbnail-"),
+            new ThreadPoolExecutor.AbortPolicy());
+
+    /**
+     * 正在生成的原图键，避免上传后立即修改头像时重复生成
+     */
+    private final Set<String> pendingKeySet = ConcurrentHashMap.newKeySet();
+
+    /**
+     * 异步生成缩略图
+     *
+     * @param key   原图对象键
+     * @param bytes 原图内容，为空时从存储读取
+     */
+    public void generateAsync(String key, byte[] bytes) {
+        if (!pendingKeySet.add(key)) {
+            return;
+        }
+        try {
+            executor.execute(() -> generateAndApply(key, bytes));
+        } catch (RejectedExecutionException e) {
+            pendingKeySet.remove(key);
+            log.warn("avatar thumbnail executor is full, task discarded, key = {}", key);
+        }
+    }
+
+    private void generateAndApply(String key, byte[] bytes) {
+        try {
+            byte[] source = bytes != null ? bytes : readObject(key);
+            if (source == null) {
+                return;
+            }
+            Map<Integer, String> variantMap = generate(key, source);
+            // 不支持的格式记为空字符串，之后不再重复生成
+            String variants = variantMap.isEmpty() ? "" : new Gson().toJson(variantMap);
+            getBucket(key).set(variants, Duration.ofDays(FILE_THUMBNAIL_TTL_DAYS));
+            if (!variants.isEmpty()) {
+                applyVariants(key, variants);
+            }
+        } catch (Exception e) {
+            log.error("avatar thumbnail error, key = {}", key, e);
+        } finally {
+            pendingKeySet.remove(key);
+        }
+    }
+
+    /**
+     * 生成缩略图并上传
+     *
+     * @param key    原图对象键
+     * @param source 原图内容
+     * @return 边长 => 访问地址，不支持的格式（如 svg、webp）返回空
+     * @throws IOException
+     */
+    public Map<Integer, String> generate(String key, byte[] source) throws IOException {
+        BufferedImage image = ImageUtils.read(source, MAX_PIXELS);
+        if (image == null) {
+            log.info("avatar thumbnail skipped, unsupported or too large, key = {}", key);
+            return Collections.emptyMap();
+        }
+        Map<Integer, String> variantMap = new TreeMap<>();
+        for (int size : FileConstant.AVATAR_THUMBNAIL_SIZES) {
+            byte[] thumbnail = ImageUtils.toJpeg(ImageUtils.resize(image, size), JPEG_QUALITY);
+            String thumbnailKey = buildThumbnailKey(key, size);
+            storageBackend.putObject(thumbnailKey, new ByteArrayInputStream(thumbnail), thumbnail.length, THUMBNAIL_CONTENT_TYPE);
+            variantMap.put(size, storageBackend.getUrl(thumbnailKey));
+        }
+        return variantMap;
+    }
+
+    /**
+     * 修改头像时获取缩略图，还没有生成时在事务提交后开始生成
+     *
+     * @param avatarUrl 头像地址
+     * @return 缩略图 JSON，没有时返回空字符串（清空旧头像的缩略图）
+     */
+    public String resolveVariants(String avatarUrl) {
+        String key = toKey(avatarUrl);
+        if (key == null) {
+            // 外部地址，不生成缩略图
+            return "";
+        }
+        try {
+            String variants = getBucket(key).get();
+            if (variants != null) {
+                return variants;
+            }
+        } catch (Exception e) {
+            log.error("redis get avatar thumbnail error, key = {}", key, e);
+        }
+        TransactionUtils.afterCommit(() -> generateAsync(key, null));
+        return "";
+    }
+
+    /**
+     * 缩略图的对象键：/user_avatar/1/abc.png => /user_avatar/1/abc_48.jpg
+     *
+     * @param key  原图对象键
+     * @param size 边长
+     * @return
+     */
+    public static String buildThumbnailKey(String key, int size) {
+        int dotIndex = key.lastIndexOf('.');
+        String mainKey = dotIndex > key.lastIndexOf('/') ? key.substring(0, dotIndex) : key;
+        return mainKey + "_" + size + ".jpg";
+    }
+
+    /**
+     * 生成完成后写回使用该头像的用户或队伍
+     * 对象键的第二段是上传者 id：用户头像只更新上传者本人，队伍头像按地址查找（队伍表数据量小）
+     */
+    private void applyVariants(String key, String variants) {
+        String[] parts = key.split("/");
+        if (parts.length < 4) {
+            return;
+        }
+        FileUploadBizEnum fileUploadBizEnum = FileUploadBizEnum.getEnumByValue(parts[1]);
+        long ownerId = NumberUtils.toLong(parts[2]);
+        String avatarUrl = storageBackend.getUrl(key);
+        // 对象键中带有上传者 id（去重索引按用户划分，不会把别人的对象键给其他用户），按主键更新；
+        // avatarUrl 没有索引，不按地址扫描用户表，粘贴他人头像地址的用户没有缩略图
+        if (FileUploadBizEnum.USER_AVATAR.equals(fileUploadBizEnum) && ownerId > 0) {
+            UpdateWrapper<User> updateWrapper = new UpdateWrapper<>();
+            updateWrapper.set("avatarVariants", variants);
+            updateWrapper.eq("id", ownerId);
+            updateWrapper.eq("avatarUrl", avatarUrl);
+            if (userMapper.update(null, updateWrapper) > 0) {
+                userProfileCache.invalidateAfterCommit(ownerId);
+            }
+        } else if (FileUploadBizEnum.TEAM_AVATAR.equals(fileUploadBizEnum)) {
+            QueryWrapper<Team> queryWrapper = new QueryWrapper<>();
+            queryWrapper.select("id");
+            queryWrapper.eq("avatarUrl", avatarUrl);
+            List<Long> teamIdList = teamMapper.selectList(queryWrapper).stream()
+                    .map(Team::getId)
+                    .collect(Collectors.toList());
+            if (teamIdList.isEmpty()) {
+                return;
+            }
+            UpdateWrapper<Team> updateWrapper = new UpdateWrapper<>();
+            updateWrapper.set("avatarVariants", variants);
+            updateWrapper.in("id", teamIdList);
+            updateWrapper.eq("avatarUrl", avatarUrl);
+            teamMapper.update(null, updateWrapper);
+            try {
+                redisTemplate.delete(teamIdList.stream()
+                        .map(teamId -> String.format(TEAM_KEY, teamId))
+                        .collect(Collectors.toList()));
+            } catch (Exception e) {
+                log.error("redis delete team error", e);
+            }
+        }
+    }
+
+    private byte[] readObject(String key) throws IOException {
+        try (InputStream inputStream = storageBackend.getObject(key)) {
+            return inputStream == null ? null : IoUtil.readBytes(inputStream);
+        }
+    }
+
+    /**
+     * 本存储的访问地址 => 对象键
+     *
+     * @return 外部地址返回 null
+     */
+    private String toKey(String avatarUrl) {
+        String prefix = storageBackend.getUrl("");
+        if (StringUtils.isBlank(avatarUrl) || !avatarUrl.startsWith(prefix) || avatarUrl.length() == prefix.length()) {
+            return null;
+        }
+        return avatarUrl.substring(prefix.length());
+    }
+
+    private RBucket<String> getBucket(String key) {
+        return redissonClient.getBucket(String.format(FILE_THUMBNAIL_KEY, key), StringCodec.INSTANCE);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
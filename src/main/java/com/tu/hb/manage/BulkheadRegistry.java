@@ -0,0 +1,85 @@
+package com.tu.hb.manage;
+
+import com.tu.hb.config.BulkheadConfig;
+import com.tu.hb.model.vo.BulkheadStatsVO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import javax.annotation.Resource;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 舱壁隔离线程池注册表：每个名称一个有界线程池，并记录拒绝次数
+ */
+@Component
+@Slf4j
+public class BulkheadRegistry {
+
+    @Resource
+    private BulkheadConfig bulkheadConfig;
+
+    private final Map<String, ThreadPoolExecutor> executorMap = new ConcurrentHashMap<>();
+
+    private final Map<String, AtomicLong> rejectedCountMap = new ConcurrentHashMap<>();
+
+    /**
+     * 获取线程池，第一次使用时按配置创建
+     *
+     * @param name
+     * @return
+     */
+    public ThreadPoolExecutor getExecutor(String name) {
+        return executorMap.computeIfAbsent(name, this::createExecutor);
+    }
+
+    /**
+     * 记录一次拒绝
+     *
+     * @param name
+     */
+    public void recordRejected(String name) {
+        rejectedCountMap.computeIfAbsent(name, key -> new AtomicLong()).incrementAndGet();
+    }
+
+    /**
+     * 各线程池的饱和度
+     *
+     * @return 线程池名称 => 统计信息
+     */
+    public Map<String, BulkheadStatsVO> getStats() {
+        Map<String, BulkheadStatsVO> statsMap = new TreeMap<>();
+        executorMap.forEach((name, executor) -> {
+            BulkheadStatsVO stats = new BulkheadStatsVO();
+            stats.setActiveCount(executor.getActiveCount());
+            stats.setPoolSize(executor.getPoolSize());
+            stats.setMaxPoolSize(executor.getMaximumPoolSize());
+            stats.setQueueSize(executor.getQueue().size());
+            stats.setQueueCapacity(executor.getQueue().size() + executor.getQueue().remainingCapacity());
+            stats.setCompletedCount(executor.getCompletedTaskCount());
+            AtomicLong rejectedCount = rejectedCountMap.get(name);
+            stats.setRejectedCount(rejectedCount == null ? 0 : rejectedCount.get());
+            statsMap.put(name, stats);
+        });
+        return statsMap;
+    }
+
+    private ThreadPoolExecutor createExecutor(String name) {
+        BulkheadConfig.Pool pool = bulkheadConfig.getPools().getOrDefault(name, new BulkheadConfig.Pool());
+        log.info("create bulkhead executor, name = {}, pool = {}", name, pool);
+        // 队列满后直接抛出 RejectedExecutionException，不在调用方线程执行
+        return new ThreadPoolExecutor(pool.getCoreSize(), pool.getMaxSize(), 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(pool.getQueueCapacity()),
+                new CustomizableThreadFactory("bulkhead-" + name + "-"),
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executorMap.values().forEach(ExecutorService::shutdown);
+    }
+}
@@ -1,16 +1,31 @@
 package com.tu.hb.manage;
 
 import com.qcloud.cos.COSClient;
-import com.qcloud.cos.model.PutObjectRequest;
-import com.qcloud.cos.model.PutObjectResult;
+import com.qcloud.cos.http.HttpMethodName;
+import com.qcloud.cos.model.*;
 import com.tu.hb.config.CosClientConfig;
+import com.tu.hb.constant.FileConstant;
+import com.tu.hb.model.dto.StorageObjectInfo;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Component;
 
 import javax.annotation.Resource;
 import java.io.File;
+import java.io.InputStream;
+import java.net.URL;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.stream.Collectors;
 
+/**
+ * 腾讯云 COS 存储
+ */
 @Component
-public class CosManager {
+@ConditionalOnProperty(prefix = "hb.storage", name = "type", havingValue = "cos", matchIfMissing = true)
+public class CosManager implements StorageBackend {
 
     @Resource
     private CosClientConfig cosClientConfig;
@@ -43,4 +58,135 @@ public class CosManager {
             cosClientConfig.getBucket(), key, file);
         return cosClient.putObject(putObjectRequest);
     }
-}
\ No newline at end of file
+
+    /**
+     * 上传对象（流式，不落本地临时文件）
+     *
+     * @param key           唯一键
+     * @param inputStream   输入流，由调用方关闭
+     * @param contentLength 内容长度（已知长度时 SDK 不需要把整个流缓存到内存）
+     * @param contentType   内容类型
+     */
+    @Override
+    public void putObject(String key, InputStream inputStream, long contentLength, String contentType) {
+        ObjectMetadata objectMetadata = new ObjectMetadata();
+        objectMetadata.setContentLength(contentLength);
+        if (contentType != null) {
+            objectMetadata.setContentType(contentType);
+        }
+        PutObjectRequest putObjectRequest = new PutObjectRequest(
+            cosClientConfig.getBucket(), key, inputStream, objectMetadata);
+        cosClient.putObject(putObjectRequest);
+    }
+
+    /**
+     * 读取对象
+     *
+     * @param key 唯一键
+     * @return 输入流，由调用方关闭；对象不存在时返回 null
+     */
+    @Override
+    public InputStream getObject(String key) {
+        if (!cosClient.doesObjectExist(cosClientConfig.getBucket(), key)) {
+            return null;
+        }
+        return cosClient.getObject(cosClientConfig.getBucket(), key).getObjectContent();
+    }
+
+    /**
+     * 生成预签名上传地址，客户端直接 PUT 到对象存储
+     *
+     * @param key           唯一键
+     * @param expiration    过期时间
+     * @param contentLength 内容长度（参与签名，上传的文件大小必须一致）
+     * @param contentType   内容类型（参与签名）
+     * @return
+     */
+    @Override
+    public URL generatePresignedPutUrl(String key, Date expiration, long contentLength, String contentType) {
+        Map<String, String> headers = new HashMap<>();
+        headers.put("Content-Length", String.valueOf(contentLength));
+        if (contentType != null) {
+            headers.put("Content-Type", contentType);
+        }
+        return cosClient.generatePresignedUrl(cosClientConfig.getBucket(), key, expiration, HttpMethodName.PUT,
+            headers, new HashMap<>());
+    }
+
+    @Override
+    public String initiateMultipartUpload(String key, String contentType) {
+        ObjectMetadata objectMetadata = new ObjectMetadata();
+        if (contentType != null) {
+            objectMetadata.setContentType(contentType);
+        }
+        return cosClient.initiateMultipartUpload(
+            new InitiateMultipartUploadRequest(cosClientConfig.getBucket(), key, objectMetadata)).getUploadId();
+    }
+
+    @Override
+    public String uploadPart(String key, String uploadId, int partNumber, InputStream inputStream, long partSize) {
+        UploadPartRequest uploadPartRequest = new UploadPartRequest();
+        uploadPartRequest.setBucketName(cosClientConfig.getBucket());
+        uploadPartRequest.setKey(key);
+        uploadPartRequest.setUploadId(uploadId);
+        uploadPartRequest.setPartNumber(partNumber);
+        uploadPartRequest.setInputStream(inputStream);
+        uploadPartRequest.setPartSize(partSize);
+        return cosClient.uploadPart(uploadPartRequest).getETag();
+    }
+
+    @Override
+    public void completeMultipartUpload(String key, String uploadId, SortedMap<Integer, String> partETags) {
+        List<PartETag> partETagList = partETags.entrySet().stream()
+            .map(entry -> new PartETag(entry.getKey(), entry.getValue()))
+            .collect(Collectors.toList());
+        cosClient.completeMultipartUpload(
+            new CompleteMultipartUploadRequest(cosClientConfig.getBucket(), key, uploadId, partETagList));
+    }
+
+    @Override
+    public void abortMultipartUpload(String key, String uploadId) {
+        cosClient.abortMultipartUpload(new AbortMultipartUploadRequest(cosClientConfig.getBucket(), key, uploadId));
+    }
+
+    /**
+     * 获取对象元信息
+     *
+     * @param key 唯一键
+     * @return 对象不存在时返回 null
+     */
+    @Override
+    public StorageObjectInfo getObjectInfo(String key) {
+        if (!cosClient.doesObjectExist(cosClientConfig.getBucket(), key)) {
+            return null;
+        }
+        ObjectMetadata objectMetadata = cosClient.getObjectMetadata(cosClientConfig.getBucket(), key);
+        StorageObjectInfo storageObjectInfo = new StorageObjectInfo();
+        storageObjectInfo.setContentLength(objectMetadata.getContentLength());
+        storageObjectInfo.setContentType(objectMetadata.getContentType());
+        storageObjectInfo.setETag(objectMetadata.getETag());
+        storageObjectInfo.setLastModified(objectMetadata.getLastModified());
+        return storageObjectInfo;
+    }
+
+    /**
+     * 删除对象
+     *
+     * @param key 唯一键
+     */
+    @Override
+    public void deleteObject(String key) {
+        cosClient.deleteObject(cosClientConfig.getBucket(), key);
+    }
+
+    /**
+     * 对象的访问地址
+     *
+     * @param key 唯一键
+     * @return
+     */
+    @Override
+    public String getUrl(String key) {
+        return FileConstant.COS_HOST + key;
+    }
+}
@@ -0,0 +1,87 @@
+package com.tu.hb.manage;
+
+import cn.hutool.crypto.digest.DigestUtil;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RBucket;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.Resource;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+
+import static com.tu.hb.constant.RedisConstant.FILE_HASH_KEY;
+import static com.tu.hb.constant.RedisConstant.FILE_HASH_TTL_DAYS;
+
+/**
+ * 上传文件去重：按业务类型和用户记录 内容哈希（SHA-256）=> 对象键，同一用户相同内容不重复上传
+ * 对象键位于用户自己的目录下，不能跨用户共享
+ */
+@Component
+@Slf4j
+public class FileDedupManager {
+
+    @Resource
+    private RedissonClient redissonClient;
+
+    /**
+     * 计算内容哈希
+     *
+     * @param inputStream 输入流，由调用方关闭
+     * @return 十六进制 SHA-256
+     */
+    public String hash(InputStream inputStream) throws IOException {
+        return DigestUtil.sha256Hex(inputStream);
+    }
+
+    /**
+     * 查询相同内容已上传的对象键
+     *
+     * @param biz    业务类型
+     * @param userId 用户 id
+     * @param hash   内容哈希
+     * @return 不存在时返回 null
+     */
+    public String getKey(String biz, Long userId, String hash) {
+        try {
+            RBucket<String> bucket = getBucket(biz, userId, hash);
+            String key = bucket.get();
+            if (key != null) {
+                bucket.expireAsync(Duration.ofDays(FILE_HASH_TTL_DAYS));
+            }
+            return key;
+        } catch (Exception e) {
+            log.error("redis get file hash error, hash = {}", hash, e);
+            return null;
+        }
+    }
+
+    /**
+     * 上传成功后记录，并发上传相同内容时保留先记录的对象键
+     *
+     * @param biz    业务类型
+     * @param userId 用户 id
+     * @param hash   内容哈希
+     * @param key    对象键
+     * @return 最终生效的对象键：记录成功（或 Redis 异常）时为 key，否则为先记录的对象键
+     */
+    public String record(String biz, Long userId, String hash, String key) {
+        try {
+            RBucket<String> bucket = getBucket(biz, userId, hash);
+            if (bucket.setIfAbsent(key, Duration.ofDays(FILE_HASH_TTL_DAYS))) {
+                return key;
+            }
+            String winnerKey = bucket.get();
+            return winnerKey != null ? winnerKey : key;
+        } catch (Exception e) {
+            log.error("redis set file hash error, hash = {}", hash, e);
+            return key;
+        }
+    }
+
+    private RBucket<String> getBucket(String biz, Long userId, String hash) {
+        return redissonClient.getBucket(String.format(FILE_HASH_KEY, biz, userId, hash), StringCodec.INSTANCE);
+    }
+}
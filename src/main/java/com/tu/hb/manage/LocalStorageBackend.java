@@ -0,0 +1,318 @@
+package com.tu.hb.manage;
+
+import cn.hutool.core.io.FileUtil;
+import cn.hutool.core.util.HexUtil;
+import com.tu.hb.common.ErrorCode;
+import com.tu.hb.config.StorageConfig;
+import com.tu.hb.exception.BusinessException;
+import com.tu.hb.model.dto.StorageObjectInfo;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.Resource;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.DigestInputStream;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Base64;
+import java.util.Date;
+import java.util.SortedMap;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * 本地文件系统存储（单机部署、开发环境使用）
+ * 文件由 LocalFileController 直接从磁盘输出（支持 sendfile 零拷贝），预签名上传地址指向本应用的 PUT 接口
+ */
+@Component
+@ConditionalOnProperty(prefix = "hb.storage", name = "type", havingValue = StorageConfig.TYPE_LOCAL)
+@Slf4j
+public class LocalStorageBackend implements StorageBackend {
+
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+
+    /**
+     * 分片目录，以 . 开头的路径不能通过 resolve 访问，不会被下载接口输出
+     */
+    private static final String MULTIPART_DIR = ".multipart";
+
+    /**
+     * 未完成的分片上传保留时间（小时），与 Redis 中的上传会话一致
+     */
+    private static final long MULTIPART_EXPIRE_HOURS = 24;
+
+    @Resource
+    private StorageConfig storageConfig;
+
+    private Path rootPath;
+
+    @PostConstruct
+    public void init() throws IOException {
+        if (StringUtils.isBlank(storageConfig.getLocal().getSecret())) {
+            throw new IllegalStateException("hb.storage.local.secret must be set when hb.storage.type is local");
+        }
+        rootPath = Paths.get(storageConfig.getLocal().getRootPath()).toAbsolutePath().normalize();
+        Files.createDirectories(rootPath);
+    }
+
+    @Override
+    public void putObject(String key, InputStream inputStream, long contentLength, String contentType) {
+        Path path = resolve(key);
+        Path tempPath = null;
+        try {
+            Files.createDirectories(path.getParent());
+            // 先写临时文件再原子替换，读请求不会看到写了一半的文件
+            tempPath = Files.createTempFile(path.getParent(), ".upload-", ".tmp");
+            long size = Files.copy(inputStream, tempPath, StandardCopyOption.REPLACE_EXISTING);
+            if (contentLength >= 0 && size != contentLength) {
+                throw new BusinessException(ErrorCode.PARAMS_ERROR, "文件大小不一致");
+            }
+            Files.move(tempPath, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            tempPath = null;
+        } catch (IOException e) {
+            log.error("local storage put error, key = {}", key, e);
+            throw new BusinessException(ErrorCode.SYSTEM_ERROR, "上传失败");
+        } finally {
+            deleteQuietly(tempPath);
+        }
+    }
+
+    @Override
+    public String initiateMultipartUpload(String key, String contentType) {
+        resolve(key);
+        String uploadId = UUID.randomUUID().toString().replace("-", "");
+        try {
+            Files.createDirectories(resolveMultipartDir(uploadId));
+        } catch (IOException e) {
+            log.error("local storage init multipart error, key = {}", key, e);
+            throw new BusinessException(ErrorCode.SYSTEM_ERROR, "上传失败");
+        }
+        return uploadId;
+    }
+
+    @Override
+    public String uploadPart(String key, String uploadId, int partNumber, InputStream inputStream, long partSize) {
+        Path multipartDir = resolveMultipartDir(uploadId);
+        if (!Files.isDirectory(multipartDir)) {
+            throw new BusinessException(ErrorCode.NULL_ERROR, "上传任务不存在");
+        }
+        Path tempPath = null;
+        try {
+            tempPath = Files.createTempFile(multipartDir, ".part-", ".tmp");
+            MessageDigest messageDigest = MessageDigest.getInstance("MD5");
+            long size = Files.copy(new DigestInputStream(inputStream, messageDigest), tempPath, StandardCopyOption.REPLACE_EXISTING);
+            if (size != partSize) {
+                throw new BusinessException(ErrorCode.PARAMS_ERROR, "分片大小不一致");
+            }
+            Files.move(tempPath, multipartDir.resolve(String.valueOf(partNumber)),
+                    StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            tempPath = null;
+            return HexUtil.encodeHexStr(messageDigest.digest());
+        } catch (IOException | GeneralSecurityException e) {
+            log.error("local storage upload part error, key = {}, partNumber = {}", key, partNumber, e);
+            throw new BusinessException(ErrorCode.SYSTEM_ERROR, "上传失败");
+        } finally {
+            deleteQuietly(tempPath);
+        }
+    }
+
+    @Override
+    public void completeMultipartUpload(String key, String uploadId, SortedMap<Integer, String> partETags) {
+        Path path = resolve(key);
+        Path multipartDir = resolveMultipartDir(uploadId);
+        Path tempPath = null;
+        try {
+            Files.createDirectories(path.getParent());
+            tempPath = Files.createTempFile(path.getParent(), ".upload-", ".tmp");
+            // 按序号依次拼接，transferTo 在内核中拷贝，不经过 JVM 堆
+            try (FileChannel outputChannel = FileChannel.open(tempPath, StandardOpenOption.WRITE)) {
+                for (Integer partNumber : partETags.keySet()) {
+                    Path partPath = multipartDir.resolve(String.valueOf(partNumber));
+                    if (!Files.isRegularFile(partPath)) {
+                        throw new BusinessException(ErrorCode.PARAMS_ERROR, "分片 " + partNumber + " 不存在");
+                    }
+                    try (FileChannel partChannel = FileChannel.open(partPath, StandardOpenOption.READ)) {
+                        long position = 0;
+                        long size = partChannel.size();
+                        while (position < size) {
+                            position += partChannel.transferTo(position, size - position, outputChannel);
+                        }
+                    }
+                }
+            }
+            Files.move(tempPath, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            tempPath = null;
+        } catch (IOException e) {
+            log.error("local storage complete multipart error, key = {}", key, e);
+            throw new BusinessException(ErrorCode.SYSTEM_ERROR, "上传失败");
+        } finally {
+            deleteQuietly(tempPath);
+        }
+        FileUtil.del(multipartDir);
+    }
+
+    @Override
+    public void abortMultipartUpload(String key, String uploadId) {
+        FileUtil.del(resolveMultipartDir(uploadId));
+    }
+
+    /**
+     * 清理过期未完成的分片
+     */
+    @Scheduled(fixedDelay = 3600000)
+    public void cleanExpiredMultipart() {
+        Path multipartRoot = rootPath.resolve(MULTIPART_DIR);
+        if (!Files.isDirectory(multipartRoot)) {
+            return;
+        }
+        long expireBefore = System.currentTimeMillis() - TimeUnit.HOURS.toMillis(MULTIPART_EXPIRE_HOURS);
+        try (Stream<Path> stream = Files.list(multipartRoot)) {
+            stream.filter(dir -> dir.toFile().lastModified() < expireBefore).forEach(FileUtil::del);
+        } catch (IOException e) {
+            log.error("local storage clean multipart error", e);
+        }
+    }
+
+    @Override
+    public InputStream getObject(String key) {
+        Path path = resolve(key);
+        if (!Files.isRegularFile(path)) {
+            return null;
+        }
+        try {
+            return Files.newInputStream(path);
+        } catch (IOException e) {
+            log.error("local storage read error, key = {}", key, e);
+            return null;
+        }
+    }
+
+    @Override
+    public URL generatePresignedPutUrl(String key, Date expiration, long contentLength, String contentType) {
+        resolve(key);
+        long expires = expiration.getTime();
+        String url = String.format("%s%s?expires=%d&length=%d&signature=%s", storageConfig.getLocal().getPublicUrl(),
+                key, expires, contentLength, sign(key, expires, contentLength));
+        try {
+            return new URL(url);
+        } catch (MalformedURLException e) {
+            throw new BusinessException(ErrorCode.SYSTEM_ERROR, "存储地址配置错误");
+        }
+    }
+
+    /**
+     * 校验预签名上传地址
+     *
+     * @param key           唯一键
+     * @param expires       过期时间戳（毫秒）
+     * @param contentLength 内容长度
+     * @param signature     签名
+     * @return 是否有效
+     */
+    public boolean verifySignature(String key, long expires, long contentLength, String signature) {
+        if (StringUtils.isBlank(signature) || expires < System.currentTimeMillis()) {
+            return false;
+        }
+        return MessageDigest.isEqual(sign(key, expires, contentLength).getBytes(StandardCharsets.UTF_8),
+                signature.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public StorageObjectInfo getObjectInfo(String key) {
+        Path path = resolve(key);
+        if (!Files.isRegularFile(path)) {
+            return null;
+        }
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+            long lastModified = attributes.lastModifiedTime().toMillis();
+            StorageObjectInfo storageObjectInfo = new StorageObjectInfo();
+            storageObjectInfo.setContentLength(attributes.size());
+            storageObjectInfo.setContentType(Files.probeContentType(path));
+            // 大小 + 修改时间，文件被替换后 ETag 随之变化
+            storageObjectInfo.setETag(Long.toHexString(attributes.size()) + "-" + Long.toHexString(lastModified));
+            storageObjectInfo.setLastModified(new Date(lastModified));
+            return storageObjectInfo;
+        } catch (IOException e) {
+            log.error("local storage stat error, key = {}", key, e);
+            return null;
+        }
+    }
+
+    @Override
+    public void deleteObject(String key) {
+        try {
+            Files.deleteIfExists(resolve(key));
+        } catch (IOException e) {
+            log.error("local storage delete error, key = {}", key, e);
+        }
+    }
+
+    @Override
+    public String getUrl(String key) {
+        return storageConfig.getLocal().getPublicUrl() + key;
+    }
+
+    /**
+     * 对象在磁盘上的路径，拒绝跳出根目录的键
+     *
+     * @param key 唯一键
+     * @return
+     */
+    public Path resolve(String key) {
+        // 以 . 开头的路径（分片目录、写入中的临时文件）不对外
+        if (StringUtils.isBlank(key) || key.contains("..") || key.contains("/.") || key.startsWith(".")
+                || key.indexOf('\0') >= 0) {
+            throw new BusinessException(ErrorCode.PARAMS_ERROR, "文件路径非法");
+        }
+        Path path = rootPath.resolve(StringUtils.stripStart(key, "/")).normalize();
+        if (!path.startsWith(rootPath) || path.equals(rootPath)) {
+            throw new BusinessException(ErrorCode.PARAMS_ERROR, "文件路径非法");
+        }
+        return path;
+    }
+
+    private Path resolveMultipartDir(String uploadId) {
+        if (!StringUtils.isAlphanumeric(uploadId)) {
+            throw new BusinessException(ErrorCode.PARAMS_ERROR, "上传任务不存在");
+        }
+        return rootPath.resolve(MULTIPART_DIR).resolve(uploadId);
+    }
+
+    private String sign(String key, long expires, long contentLength) {
+        String payload = key + "|" + expires + "|" + contentLength;
+        try {
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(new SecretKeySpec(storageConfig.getLocal().getSecret().getBytes(StandardCharsets.UTF_8), HMAC_ALGORITHM));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(mac.doFinal(payload.getBytes(StandardCharsets.UTF_8)));
+        } catch (GeneralSecurityException e) {
+            log.error("local storage sign error", e);
+            throw new BusinessException(ErrorCode.SYSTEM_ERROR, "签名失败");
+        }
+    }
+
+    private void deleteQuietly(Path path) {
+        if (path == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("local storage delete temp file error, path = {}", path, e);
+        }
+    }
+}
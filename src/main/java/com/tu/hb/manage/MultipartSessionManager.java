@@ -0,0 +1,86 @@
+package com.tu.hb.manage;
+
+import com.tu.hb.model.dto.MultipartUploadSession;
+import org.redisson.api.RMap;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+import org.redisson.codec.TypedJsonJacksonCodec;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.Resource;
+import java.time.Duration;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+import static com.tu.hb.constant.RedisConstant.*;
+
+/**
+ * 分片上传会话：会话信息和已完成的分片分开保存，并行上传分片时各自写入 Hash 的一个字段，互不覆盖
+ */
+@Component
+public class MultipartSessionManager {
+
+    private static final TypedJsonJacksonCodec CODEC = new TypedJsonJacksonCodec(MultipartUploadSession.class);
+
+    @Resource
+    private RedissonClient redissonClient;
+
+    /**
+     * 保存会话
+     *
+     * @param session
+     */
+    public void save(MultipartUploadSession session) {
+        redissonClient.<MultipartUploadSession>getBucket(String.format(FILE_MULTIPART_KEY, session.getUploadId()), CODEC)
+                .set(session, Duration.ofHours(FILE_MULTIPART_TTL_HOURS));
+    }
+
+    /**
+     * 获取会话
+     *
+     * @param uploadId
+     * @return 不存在或已过期时返回 null
+     */
+    public MultipartUploadSession get(String uploadId) {
+        return redissonClient.<MultipartUploadSession>getBucket(String.format(FILE_MULTIPART_KEY, uploadId), CODEC).get();
+    }
+
+    /**
+     * 记录已完成的分片，同一分片重复上传时覆盖
+     *
+     * @param uploadId
+     * @param partNumber
+     * @param eTag
+     */
+    public void recordPart(String uploadId, int partNumber, String eTag) {
+        RMap<String, String> partMap = getPartMap(uploadId);
+        partMap.fastPut(String.valueOf(partNumber), eTag);
+        partMap.expire(Duration.ofHours(FILE_MULTIPART_TTL_HOURS));
+    }
+
+    /**
+     * 已完成的分片
+     *
+     * @param uploadId
+     * @return 分片序号 => ETag
+     */
+    public SortedMap<Integer, String> getParts(String uploadId) {
+        SortedMap<Integer, String> partETags = new TreeMap<>();
+        getPartMap(uploadId).readAllMap().forEach((partNumber, eTag) -> partETags.put(Integer.parseInt(partNumber), eTag));
+        return partETags;
+    }
+
+    /**
+     * 删除会话
+     *
+     * @param uploadId
+     */
+    public void delete(String uploadId) {
+        redissonClient.getKeys().delete(String.format(FILE_MULTIPART_KEY, uploadId),
+                String.format(FILE_MULTIPART_PARTS_KEY, uploadId));
+    }
+
+    private RMap<String, String> getPartMap(String uploadId) {
+        return redissonClient.getMap(String.format(FILE_MULTIPART_PARTS_KEY, uploadId), StringCodec.INSTANCE);
+    }
+}
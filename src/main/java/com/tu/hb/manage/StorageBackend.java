@@ -0,0 +1,104 @@
+package com.tu.hb.manage;
+
+import com.tu.hb.model.dto.StorageObjectInfo;
+
+import java.io.InputStream;
+import java.net.URL;
+import java.util.Date;
+import java.util.SortedMap;
+
+/**
+ * 对象存储后端，由 hb.storage.type 选择实现：cos（腾讯云 COS，默认）| local（本地文件系统）
+ */
+public interface StorageBackend {
+
+    /**
+     * 上传对象（流式）
+     *
+     * @param key           唯一键
+     * @param inputStream   输入流，由调用方关闭
+     * @param contentLength 内容长度
+     * @param contentType   内容类型
+     */
+    void putObject(String key, InputStream inputStream, long contentLength, String contentType);
+
+    /**
+     * 读取对象
+     *
+     * @param key 唯一键
+     * @return 输入流，由调用方关闭；对象不存在时返回 null
+     */
+    InputStream getObject(String key);
+
+    /**
+     * 生成预签名上传地址，客户端直接 PUT
+     *
+     * @param key           唯一键
+     * @param expiration    过期时间
+     * @param contentLength 内容长度（参与签名，上传的文件大小必须一致）
+     * @param contentType   内容类型
+     * @return
+     */
+    URL generatePresignedPutUrl(String key, Date expiration, long contentLength, String contentType);
+
+    /**
+     * 初始化分片上传
+     *
+     * @param key         唯一键
+     * @param contentType 内容类型
+     * @return 分片上传 id
+     */
+    String initiateMultipartUpload(String key, String contentType);
+
+    /**
+     * 上传一个分片，同一分片重复上传时覆盖
+     *
+     * @param key         唯一键
+     * @param uploadId    分片上传 id
+     * @param partNumber  分片序号（从 1 开始）
+     * @param inputStream 输入流，由调用方关闭
+     * @param partSize    分片大小
+     * @return 分片 ETag
+     */
+    String uploadPart(String key, String uploadId, int partNumber, InputStream inputStream, long partSize);
+
+    /**
+     * 合并分片
+     *
+     * @param key       唯一键
+     * @param uploadId  分片上传 id
+     * @param partETags 分片序号 => ETag（按序号升序）
+     */
+    void completeMultipartUpload(String key, String uploadId, SortedMap<Integer, String> partETags);
+
+    /**
+     * 取消分片上传，删除已上传的分片
+     *
+     * @param key      唯一键
+     * @param uploadId 分片上传 id
+     */
+    void abortMultipartUpload(String key, String uploadId);
+
+    /**
+     * 获取对象元信息
+     *
+     * @param key 唯一键
+     * @return 对象不存在时返回 null
+     */
+    StorageObjectInfo getObjectInfo(String key);
+
+    /**
+     * 删除对象
+     *
+     * @param key 唯一键
+     */
+    void deleteObject(String key);
+
+    /**
+     * 对象的访问地址
+     *
+     * @param key 唯一键
+     * @return
+     */
+    String getUrl(String key);
+}
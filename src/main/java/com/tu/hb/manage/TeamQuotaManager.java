@@ -0,0 +1,133 @@
+package com.tu.hb.manage;
+
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.tu.hb.mapper.TeamMapper;
+import com.tu.hb.model.domain.Team;
+import com.tu.hb.utils.TransactionUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RScript;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.LongCodec;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.Resource;
+import java.time.Duration;
+import java.util.Collections;
+
+import static com.tu.hb.constant.RedisConstant.USER_CREATE_TEAM_COUNT_KEY;
+import static com.tu.hb.constant.RedisConstant.USER_CREATE_TEAM_COUNT_TTL_HOURS;
+
+/**
+ * 创建队伍配额管理
+ * 用 Redis 计数器原子地预占名额，替代“先 count 再插入”的非原子校验
+ */
+@Component
+@Slf4j
+public class TeamQuotaManager {
+
+    /**
+     * 每个用户最多创建的队伍数
+     */
+    public static final int MAX_CREATE_TEAM_NUM = 5;
+
+    /**
+     * 预占名额：-1 计数器不存在，0 已达上限，1 预占成功
+     * 每次预占都续期：计数器不会在预占所在的事务提交前过期，避免重新统计时看不到未提交的队伍而超出上限
+     */
+    private static final String RESERVE_SCRIPT =
+            "local current = redis.call('get', KEYS[1]) " +
+            "if not current then return -1 end " +
+            "if tonumber(current) >= tonumber(ARGV[1]) then return 0 end " +
+            "redis.call('incr', KEYS[1]) " +
+            "redis.call('expire', KEYS[1], ARGV[2]) " +
+            "return 1";
+
+    /**
+     * 计数器存在时才增减并续期，不存在时下次预占会从数据库重新统计
+     */
+    private static final String INCR_IF_EXISTS_SCRIPT =
+            "local current = redis.call('get', KEYS[1]) " +
+            "if not current then return 0 end " +
+            "redis.call('expire', KEYS[1], ARGV[2]) " +
+            "if tonumber(ARGV[1]) < 0 and tonumber(current) <= 0 then return 0 end " +
+            "return redis.call('incrby', KEYS[1], ARGV[1])";
+
+    @Resource
+    private RedissonClient redissonClient;
+
+    @Resource
+    private TeamMapper teamMapper;
+
+    /**
+     * 预占一个创建队伍的名额，当前事务回滚时自动归还
+     *
+     * @param userId
+     * @return 是否预占成功（false 表示已达上限）
+     */
+    public boolean tryReserve(Long userId) {
+        String key = String.format(USER_CREATE_TEAM_COUNT_KEY, userId);
+        long result = reserve(key);
+        if (result < 0) {
+            // 计数器不存在，从数据库统计后初始化（多个请求同时初始化时只有一个生效）
+            QueryWrapper<Team> queryWrapper = new QueryWrapper<>();
+            queryWrapper.eq("userId", userId);
+            long count = teamMapper.selectCount(queryWrapper);
+            redissonClient.getBucket(key, LongCodec.INSTANCE)
+                    .setIfAbsent(count, Duration.ofHours(USER_CREATE_TEAM_COUNT_TTL_HOURS));
+            result = reserve(key);
+        }
+        if (result <= 0) {
+            return false;
+        }
+        TransactionUtils.afterRollback(() -> release(userId));
+        return true;
+    }
+
+    /**
+     * 用户不再是某个队伍的队长（队伍删除、解散或转让），事务提交后归还一个名额
+     *
+     * @param userId
+     */
+    public void releaseAfterCommit(Long userId) {
+        TransactionUtils.afterCommit(() -> release(userId));
+    }
+
+    /**
+     * 用户通过队长转让成为某个队伍的队长，事务提交后占用一个名额（不受上限限制）
+     *
+     * @param userId
+     */
+    public void increaseAfterCommit(Long userId) {
+        TransactionUtils.afterCommit(() -> incrementIfExists(userId, 1));
+    }
+
+    private void release(Long userId) {
+        incrementIfExists(userId, -1);
+    }
+
+    private long reserve(String key) {
+        Long result = redissonClient.getScript(LongCodec.INSTANCE).eval(RScript.Mode.READ_WRITE, RESERVE_SCRIPT,
+                RScript.ReturnType.INTEGER, Collections.singletonList(key), MAX_CREATE_TEAM_NUM, getTtlSeconds());
+        return result == null ? -1 : result;
+    }
+
+    private long getTtlSeconds() {
+        return Duration.ofHours(USER_CREATE_TEAM_COUNT_TTL_HOURS).getSeconds();
+    }
+
+    private void incrementIfExists(Long userId, long delta) {
+        String key = String.format(USER_CREATE_TEAM_COUNT_KEY, userId);
+        try {
+            redissonClient.getScript(LongCodec.INSTANCE).eval(RScript.Mode.READ_WRITE, INCR_IF_EXISTS_SCRIPT,
+                    RScript.ReturnType.INTEGER, Collections.singletonList(key), delta, getTtlSeconds());
+        } catch (Exception e) {
+            // 更新失败时删除计数器，下次预占从数据库重新统计
+            log.error("redis update team quota error, key = {}", key, e);
+            try {
+                redissonClient.getKeys().delete(key);
+            } catch (Exception ex) {
+                log.error("redis delete team quota error, key = {}", key, ex);
+            }
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package com.tu.hb.manage;
+
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.tu.hb.mapper.UserMapper;
+import com.tu.hb.model.domain.User;
+import com.tu.hb.utils.TransactionUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RBloomFilter;
+import org.redisson.api.RBucket;
+import org.redisson.api.RLock;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.Resource;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static com.tu.hb.constant.RedisConstant.USER_ACCOUNT_BLOOM_BUILT_KEY;
+import static com.tu.hb.constant.RedisConstant.USER_ACCOUNT_BLOOM_KEY;
+import static com.tu.hb.constant.RedisConstant.USER_ACCOUNT_BLOOM_LOCK_KEY;
+
+/**
+ * 已注册账号的布隆过滤器
+ * 判断为不存在的账号一定未注册，注册时可以跳过数据库查重；账号唯一索引仍是最终的判断依据
+ */
+@Component
+@Slf4j
+public class UserAccountBloomFilter {
+
+    /**
+     * 预计账号数
+     */
+    private static final long EXPECTED_INSERTIONS = 2000000L;
+
+    /**
+     * 误判率
+     */
+    private static final double FALSE_PROBABILITY = 0.01;
+
+    /**
+     * 重建时每批读取的账号数
+     */
+    private static final int REBUILD_BATCH_SIZE = 10000;
+
+    @Resource
+    private RedissonClient redissonClient;
+
+    @Resource
+    private UserMapper userMapper;
+
+    /**
+     * 本节点启动时的重建是否完成，完成前所有账号都按“可能存在”处理
+     */
+    private volatile boolean ready = false;
+
+    /**
+     * 账号是否可能已注册
+     *
+     * @param userAccount
+     * @return false 表示一定未注册
+     */
+    public boolean mightContain(String userAccount) {
+        if (!ready) {
+            return true;
+        }
+        try {
+            return getBloomFilter().contains(userAccount);
+        } catch (Exception e) {
+            log.error("redis bloom filter contains error, userAccount = {}", userAccount, e);
+            return true;
+        }
+    }
+
+    /**
+     * 事务提交后记录新注册的账号
+     *
+     * @param userAccount
+     */
+    public void addAfterCommit(String userAccount) {
+        TransactionUtils.afterCommit(() -> {
+            try {
+                getBloomFilter().add(userAccount);
+            } catch (Exception e) {
+                log.error("redis bloom filter add error, userAccount = {}", userAccount, e);
+            }
+        });
+    }
+
+    /**
+     * 批量记录账号（批量导入，不在事务中）
+     *
+     * @param userAccountList
+     */
+    public void addAll(Collection<String> userAccountList) {
+        if (userAccountList.isEmpty()) {
+            return;
+        }
+        try {
+            getBloomFilter().add(userAccountList);
+        } catch (Exception e) {
+            log.error("redis bloom filter add error, size = {}", userAccountList.size(), e);
+        }
+    }
+
+    /**
+     * 启动后从用户表重建，多个节点同时启动时只由一个节点重建
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        RLock lock = redissonClient.getLock(USER_ACCOUNT_BLOOM_LOCK_KEY);
+        try {
+            if (!lock.tryLock(10, -1, TimeUnit.MINUTES)) {
+                log.error("rebuild account bloom filter timeout, fall back to database");
+                return;
+            }
+            try {
+                RBucket<String> builtBucket = redissonClient.getBucket(USER_ACCOUNT_BLOOM_BUILT_KEY);
+                if (!builtBucket.isExists() || !getBloomFilter().isExists()) {
+                    long count = doRebuild();
+                    builtBucket.set("1", Duration.ofMinutes(10));
+                    log.info("rebuild account bloom filter finished, count = {}", count);
+                }
+                ready = true;
+            } finally {
+                lock.unlock();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            log.error("rebuild account bloom filter error, fall back to database", e);
+        }
+    }
+
+    private long doRebuild() {
+        RBloomFilter<String> bloomFilter = getBloomFilter();
+        bloomFilter.delete();
+        bloomFilter.tryInit(EXPECTED_INSERTIONS, FALSE_PROBABILITY);
+        // 按 id 分批读取，只查询账号字段（已逻辑删除的账号不在其中，由唯一索引兜底）
+        long lastId = 0;
+        long count = 0;
+        while (true) {
+            QueryWrapper<User> queryWrapper = new QueryWrapper<>();
+            queryWrapper.select("id", "userAccount");
+            queryWrapper.gt("id", lastId);
+            queryWrapper.orderByAsc("id");
+            queryWrapper.last("limit " + REBUILD_BATCH_SIZE);
+            List<User> userList = userMapper.selectList(queryWrapper);
+            if (userList.isEmpty()) {
+                return count;
+            }
+            List<String> accountList = userList.stream()
+                    .map(User::getUserAccount)
+                    .filter(account -> account != null)
+                    .collect(Collectors.toList());
+            if (!accountList.isEmpty()) {
+                bloomFilter.add(accountList);
+            }
+            count += accountList.size();
+            lastId = userList.get(userList.size() - 1).getId();
+        }
+    }
+
+    private RBloomFilter<String> getBloomFilter() {
+        return redissonClient.getBloomFilter(USER_ACCOUNT_BLOOM_KEY, StringCodec.INSTANCE);
+    }
+}
@@ -0,0 +1,127 @@
+package com.tu.hb.manage;
+
+import com.tu.hb.model.domain.User;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import javax.annotation.Resource;
+import java.util.*;
+import java.util.function.Supplier;
+
+/**
+ * 请求级别的用户批量加载器（DataLoader 风格）
+ * 同一请求内先登记需要的用户 id，第一次取值时合并成一次批量查询，结果在整个请求内复用
+ */
+@Component
+public class UserBatchLoader {
+
+    private static final String CONTEXT_ATTRIBUTE = UserBatchLoader.class.getName() + ".CONTEXT";
+
+    @Resource
+    private UserProfileCache userProfileCache;
+
+    /**
+     * 登记一个用户 id，返回延迟取值的句柄
+     *
+     * @param userId
+     * @return 调用 get() 时批量加载所有已登记的用户，用户不存在时返回 null
+     */
+    public Supplier<User> load(Long userId) {
+        LoaderContext context = currentContext();
+        if (!context.loaded.containsKey(userId)) {
+            context.pending.add(userId);
+        }
+        return () -> {
+            if (!context.loaded.containsKey(userId)) {
+                dispatch(context);
+            }
+            return context.loaded.get(userId);
+        };
+    }
+
+    /**
+     * 批量加载，结果按传入顺序返回（跳过不存在的用户）
+     *
+     * @param userIds
+     * @return
+     */
+    public List<User> loadMany(Collection<Long> userIds) {
+        LoaderContext context = currentContext();
+        for (Long userId : userIds) {
+            if (!context.loaded.containsKey(userId)) {
+                context.pending.add(userId);
+            }
+        }
+        dispatch(context);
+        List<User> userList = new ArrayList<>(userIds.size());
+        for (Long userId : userIds) {
+            User user = context.loaded.get(userId);
+            if (user != null) {
+                userList.add(user);
+            }
+        }
+        return userList;
+    }
+
+    /**
+     * 用户信息被修改后，丢弃当前请求内已加载的结果
+     *
+     * @param userId
+     */
+    public void forget(Long userId) {
+        RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+        if (requestAttributes == null) {
+            return;
+        }
+        LoaderContext context = (LoaderContext) requestAttributes.getAttribute(CONTEXT_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (context != null) {
+            context.loaded.remove(userId);
+        }
+    }
+
+    private void dispatch(LoaderContext context) {
+        if (context.pending.isEmpty()) {
+            return;
+        }
+        List<Long> batchIds = new ArrayList<>(context.pending);
+        context.pending.clear();
+        Map<Long, User> userMap = userProfileCache.getAll(batchIds);
+        // 不存在的用户也记录下来，避免重复查询
+        for (Long userId : batchIds) {
+            context.loaded.put(userId, userMap.get(userId));
+        }
+    }
+
+    /**
+     * 当前请求的加载上下文，不在请求中（定时任务等）时每次调用使用新的上下文
+     */
+    private LoaderContext currentContext() {
+        RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+        if (requestAttributes == null) {
+            return new LoaderContext();
+        }
+        LoaderContext context = (LoaderContext) requestAttributes.getAttribute(CONTEXT_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (context == null) {
+            context = new LoaderContext();
+            requestAttributes.setAttribute(CONTEXT_ATTRIBUTE, context, RequestAttributes.SCOPE_REQUEST);
+        }
+        return context;
+    }
+
+    /**
+     * 一个请求只在一个线程中处理，不需要同步
+     */
+    private static class LoaderContext {
+
+        /**
+         * 已登记、尚未加载的用户 id
+         */
+        private final Set<Long> pending = new LinkedHashSet<>();
+
+        /**
+         * 已加载的用户，值为 null 表示用户不存在
+         */
+        private final Map<Long, User> loaded = new HashMap<>();
+    }
+}
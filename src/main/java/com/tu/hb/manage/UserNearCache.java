@@ -0,0 +1,106 @@
+package com.tu.hb.manage;
+
+import com.tu.hb.model.domain.User;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RTopic;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.LongCodec;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.Resource;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import static com.tu.hb.constant.RedisConstant.USER_NEAR_CACHE_INVALIDATE_TOPIC;
+
+/**
+ * 用户信息本地缓存（每个节点一份）
+ * 作为 {@link UserProfileCache} 的一级缓存，修改后通过 Redis 广播让所有节点失效
+ */
+@Component
+@Slf4j
+public class UserNearCache {
+
+    /**
+     * 最多缓存的用户数
+     */
+    private static final int MAX_SIZE = 10000;
+
+    /**
+     * 过期时间，广播丢失时兜底
+     */
+    private static final long TTL_MILLIS = TimeUnit.MINUTES.toMillis(5);
+
+    @Resource
+    private RedissonClient redissonClient;
+
+    private RTopic invalidateTopic;
+
+    /**
+     * LRU：按访问顺序淘汰最久未使用的用户
+     */
+    private final Map<Long, CacheEntry> localCache = Collections.synchronizedMap(
+            new LinkedHashMap<Long, CacheEntry>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Long, CacheEntry> eldest) {
+                    return size() > MAX_SIZE;
+                }
+            });
+
+    @PostConstruct
+    public void init() {
+        invalidateTopic = redissonClient.getTopic(USER_NEAR_CACHE_INVALIDATE_TOPIC, LongCodec.INSTANCE);
+        invalidateTopic.addListener(Long.class, (channel, userId) -> localCache.remove(userId));
+    }
+
+    /**
+     * 读取用户信息，未命中或已过期时通过 loader 加载
+     *
+     * @param userId
+     * @param loader 加载脱敏后的用户信息，用户不存在时返回 null（不缓存）
+     * @return 缓存中的对象，调用方不要修改
+     */
+    public User get(Long userId, Function<Long, User> loader) {
+        CacheEntry entry = localCache.get(userId);
+        long now = System.currentTimeMillis();
+        if (entry != null && entry.expireTime > now) {
+            return entry.user;
+        }
+        User user = loader.apply(userId);
+        if (user != null) {
+            localCache.put(userId, new CacheEntry(user, now + TTL_MILLIS));
+        }
+        return user;
+    }
+
+    /**
+     * 使所有节点上该用户的缓存失效
+     *
+     * @param userId
+     */
+    public void invalidate(Long userId) {
+        localCache.remove(userId);
+        try {
+            invalidateTopic.publish(userId);
+        } catch (Exception e) {
+            // 广播失败时其它节点依靠过期时间兜底
+            log.error("redis publish user invalidate error, userId = {}", userId, e);
+        }
+    }
+
+    private static class CacheEntry {
+
+        private final User user;
+
+        private final long expireTime;
+
+        private CacheEntry(User user, long expireTime) {
+            this.user = user;
+            this.expireTime = expireTime;
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.tu.hb.manage;
+
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.tu.hb.event.UserTagsChangeEvent;
+import com.tu.hb.mapper.SafeUserColumns;
+import com.tu.hb.mapper.UserMapper;
+import com.tu.hb.model.domain.User;
+import com.tu.hb.utils.TransactionUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.collections4.CollectionUtils;
+import org.redisson.api.RBatch;
+import org.redisson.api.RedissonClient;
+import org.redisson.codec.TypedJsonJacksonCodec;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.Resource;
+import java.time.Duration;
+import java.util.*;
+import java.util.stream.Collectors;
+
+import static com.tu.hb.constant.RedisConstant.USER_PROFILE_KEY;
+import static com.tu.hb.constant.RedisConstant.USER_PROFILE_TTL_MINUTES;
+
+/**
+ * 用户信息读缓存：本地缓存 -> Redis（批量 MGET） -> 数据库（一次 IN 查询）
+ * 只缓存脱敏后的字段，用户信息或标签修改后失效
+ */
+@Component
+@Slf4j
+public class UserProfileCache {
+
+    private static final TypedJsonJacksonCodec CODEC = new TypedJsonJacksonCodec(User.class);
+
+    @Resource
+    private RedissonClient redissonClient;
+
+    @Resource
+    private UserMapper userMapper;
+
+    @Resource
+    private UserNearCache userNearCache;
+
+    /**
+     * 获取单个用户信息
+     *
+     * @param userId
+     * @return 缓存中的对象，调用方不要修改；用户不存在时返回 null
+     */
+    public User get(Long userId) {
+        return userNearCache.get(userId, id -> getAll(Collections.singletonList(id)).get(id));
+    }
+
+    /**
+     * 批量获取用户信息：一次 MGET，未命中的用户一次 IN 查询后回填
+     *
+     * @param userIds
+     * @return 用户 id => 用户信息，不存在的用户不在结果中
+     */
+    public Map<Long, User> getAll(Collection<Long> userIds) {
+        if (CollectionUtils.isEmpty(userIds)) {
+            return new HashMap<>();
+        }
+        Set<Long> idSet = new LinkedHashSet<>(userIds);
+        Map<Long, User> userMap = new HashMap<>();
+        try {
+            String[] keys = idSet.stream().map(UserProfileCache::buildKey).toArray(String[]::new);
+            Map<String, User> cached = redissonClient.getBuckets(CODEC).get(keys);
+            cached.values().forEach(user -> userMap.put(user.getId(), user));
+        } catch (Exception e) {
+            log.error("redis get user profile error", e);
+        }
+        List<Long> missIds = idSet.stream().filter(id -> !userMap.containsKey(id)).collect(Collectors.toList());
+        if (missIds.isEmpty()) {
+            return userMap;
+        }
+        QueryWrapper<User> queryWrapper = new QueryWrapper<>();
+        queryWrapper.select(SafeUserColumns.COLUMNS);
+        queryWrapper.in("id", missIds);
+        List<User> dbUserList = userMapper.selectList(queryWrapper);
+        dbUserList.forEach(user -> userMap.put(user.getId(), user));
+        try {
+            RBatch batch = redissonClient.createBatch();
+            Duration ttl = Duration.ofMinutes(USER_PROFILE_TTL_MINUTES);
+            dbUserList.forEach(user -> batch.getBucket(buildKey(user.getId()), CODEC).setAsync(user, ttl));
+            batch.execute();
+        } catch (Exception e) {
+            log.error("redis set user profile error", e);
+        }
+        return userMap;
+    }
+
+    /**
+     * 事务提交后删除用户信息缓存（Redis 和所有节点的本地缓存）
+     *
+     * @param userId
+     */
+    public void invalidateAfterCommit(Long userId) {
+        TransactionUtils.afterCommit(() -> invalidate(userId));
+    }
+
+    /**
+     * 标签变更事件在事务提交后发布，直接失效
+     */
+    @EventListener
+    public void onUserTagsChange(UserTagsChangeEvent event) {
+        invalidate(event.getUserId());
+    }
+
+    private void invalidate(Long userId) {
+        // 先删 Redis 再广播，避免其它节点失效后又读到旧值
+        try {
+            redissonClient.getBucket(buildKey(userId)).delete();
+        } catch (Exception e) {
+            log.error("redis delete user profile error, userId = {}", userId, e);
+        }
+        userNearCache.invalidate(userId);
+    }
+
+    private static String buildKey(Long userId) {
+        return String.format(USER_PROFILE_KEY, userId);
+    }
+}
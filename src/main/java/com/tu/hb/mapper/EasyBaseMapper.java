@@ -0,0 +1,39 @@
+package com.tu.hb.mapper;
+
+import cn.hutool.core.collection.ListUtil;
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+
+import java.util.List;
+
+/**
+ * 扩展 BaseMapper，增加真正的批量插入（方法由 EasySqlInjector 注入）
+ *
+ * @param <T>
+ */
+public interface EasyBaseMapper<T> extends BaseMapper<T> {
+
+    /**
+     * 批量插入，生成一条 insert into ... values (...),(...) 语句，自增 id 会回填
+     * 不插入 createTime、updateTime、isDelete、version，使用数据库默认值；其余字段为 null 时插入 NULL
+     * 一次插入的行数受 max_allowed_packet 限制，大量数据使用 {@link #insertBatch(List, int)}
+     *
+     * @param entityList
+     * @return 插入的行数
+     */
+    int insertBatchSomeColumn(List<T> entityList);
+
+    /**
+     * 分批插入，每批一条多行 insert 语句
+     *
+     * @param entityList
+     * @param batchSize  每批行数
+     * @return 插入的行数
+     */
+    default int insertBatch(List<T> entityList, int batchSize) {
+        int inserted = 0;
+        for (List<T> batch : ListUtil.partition(entityList, batchSize)) {
+            inserted += insertBatchSomeColumn(batch);
+        }
+        return inserted;
+    }
+}
@@ -0,0 +1,13 @@
+package com.tu.hb.mapper;
+
+/**
+ * 用户表的脱敏字段投影：读接口默认只查询这些字段，密码等敏感字段不会被加载
+ */
+public final class SafeUserColumns {
+
+    public static final String[] COLUMNS = {"id", "username", "userAccount", "avatarUrl", "avatarVariants", "gender",
+            "phone", "email", "userStatus", "createTime", "userRole", "tags", "profile", "version"};
+
+    private SafeUserColumns() {
+    }
+}
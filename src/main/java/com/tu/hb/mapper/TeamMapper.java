@@ -2,6 +2,8 @@ package com.tu.hb.mapper;
 
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.tu.hb.model.domain.Team;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.cursor.Cursor;
 
 
 /**
@@ -12,6 +14,20 @@ import com.tu.hb.model.domain.Team;
 */
 public interface TeamMapper extends BaseMapper<Team> {
 
+    /**
+     * 队长退出后处理队伍：没有剩余成员则解散，否则转交给最早入队的成员
+     * @param teamId
+     * @param quitUserId 退出的用户 id
+     * @return
+     */
+    int transferCaptainOrDissolve(@Param("teamId") Long teamId, @Param("quitUserId") Long quitUserId);
+
+    /**
+     * 流式查询全部队伍（不含密码），用于导出
+     * 需要在事务中遍历，遍历期间占用一个数据库连接
+     * @return
+     */
+    Cursor<Team> streamTeams();
 }
 
 
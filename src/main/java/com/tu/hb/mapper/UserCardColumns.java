@@ -0,0 +1,13 @@
+package com.tu.hb.mapper;
+
+/**
+ * 用户卡片字段投影：推荐、搜索等列表接口只返回卡片上展示的字段
+ */
+public final class UserCardColumns {
+
+    public static final String[] COLUMNS = {"id", "username", "avatarUrl", "avatarVariants", "gender", "phone", "email",
+            "tags", "profile"};
+
+    private UserCardColumns() {
+    }
+}
@@ -1,7 +1,10 @@
 package com.tu.hb.mapper;
 
-import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.tu.hb.model.domain.User;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.cursor.Cursor;
+
+import java.util.List;
 
 
 /**
@@ -10,8 +13,31 @@ import com.tu.hb.model.domain.User;
 * @createDate 2023-12-26 15:41:38
 * @Entity generator.domain.User
 */
-public interface UserMapper extends BaseMapper<User> {
-
+public interface UserMapper extends EasyBaseMapper<User> {
+
+    /**
+     * 已存在的星球编号（包括已删除的用户）
+     *
+     * @param planetCodeList
+     * @return
+     */
+    List<String> selectExistPlanetCodes(@Param("list") List<String> planetCodeList);
+
+    /**
+     * 批量插入（普通多行 insert），任一行违反唯一索引（DuplicateKeyException）或列约束时整条语句失败
+     *
+     * @param userList
+     * @return 插入行数
+     */
+    int insertBatchUsers(@Param("list") List<User> userList);
+
+    /**
+     * 流式查询全部用户（不含密码），用于导出
+     * 需要在事务中遍历，遍历期间占用一个数据库连接
+     *
+     * @return
+     */
+    Cursor<User> streamUsers();
 }
 
 
@@ -1,8 +1,8 @@
 package com.tu.hb.mapper;
 
 
-import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.tu.hb.model.domain.UserTeam;
+import org.apache.ibatis.annotations.Param;
 
 /**
 * @author The tu
@@ -10,8 +10,15 @@ import com.tu.hb.model.domain.UserTeam;
 * @createDate 2024-01-16 11:06:43
 * @Entity generator.domain.UserTeam
 */
-public interface UserTeamMapper extends BaseMapper<UserTeam> {
-
+public interface UserTeamMapper extends EasyBaseMapper<UserTeam> {
+
+    /**
+     * 退出队伍（逻辑删除关系），影响行数为 0 表示用户不在此队伍中
+     * @param teamId
+     * @param userId
+     * @return
+     */
+    int quitTeam(@Param("teamId") Long teamId, @Param("userId") Long userId);
 }
 
 
@@ -0,0 +1,40 @@
+package com.tu.hb.model.convert;
+
+import com.tu.hb.model.domain.Team;
+import com.tu.hb.model.vo.TeamUserVO;
+
+/**
+ * 队伍对象转换（逐字段赋值，不使用反射）
+ * 新增字段时需要同步修改，ConvertTest 会和 BeanUtils.copyProperties 的结果做对比
+ */
+public final class TeamConvert {
+
+    private TeamConvert() {
+    }
+
+    /**
+     * 队伍 => 队伍和用户信息封装类（不包含创建人、已加入人数等关联信息）
+     *
+     * @param team
+     * @return
+     */
+    public static TeamUserVO toTeamUserVO(Team team) {
+        if (team == null) {
+            return null;
+        }
+        TeamUserVO teamUserVO = new TeamUserVO();
+        teamUserVO.setId(team.getId());
+        teamUserVO.setName(team.getName());
+        teamUserVO.setDescription(team.getDescription());
+        teamUserVO.setUserId(team.getUserId());
+        teamUserVO.setMaxNum(team.getMaxNum());
+        teamUserVO.setStatus(team.getStatus());
+        teamUserVO.setPassword(team.getPassword());
+        teamUserVO.setExpireTime(team.getExpireTime());
+        teamUserVO.setCreateTime(team.getCreateTime());
+        teamUserVO.setUpdateTime(team.getUpdateTime());
+        teamUserVO.setAvatarUrl(team.getAvatarUrl());
+        teamUserVO.setAvatarVariants(team.getAvatarVariants());
+        return teamUserVO;
+    }
+}
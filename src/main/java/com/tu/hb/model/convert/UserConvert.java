@@ -0,0 +1,69 @@
+package com.tu.hb.model.convert;
+
+import com.tu.hb.model.domain.User;
+import com.tu.hb.model.vo.UserVO;
+
+/**
+ * 用户对象转换（逐字段赋值，不使用反射）
+ * 新增字段时需要同步修改，ConvertTest 会和 BeanUtils.copyProperties 的结果做对比
+ */
+public final class UserConvert {
+
+    private UserConvert() {
+    }
+
+    /**
+     * 用户 => 用户封装类
+     *
+     * @param user
+     * @return
+     */
+    public static UserVO toUserVO(User user) {
+        if (user == null) {
+            return null;
+        }
+        UserVO userVO = new UserVO();
+        userVO.setId(user.getId());
+        userVO.setUsername(user.getUsername());
+        userVO.setUserAccount(user.getUserAccount());
+        userVO.setAvatarUrl(user.getAvatarUrl());
+        userVO.setAvatarVariants(user.getAvatarVariants());
+        userVO.setGender(user.getGender());
+        userVO.setPhone(user.getPhone());
+        userVO.setEmail(user.getEmail());
+        userVO.setUserStatus(user.getUserStatus());
+        userVO.setCreateTime(user.getCreateTime());
+        userVO.setUpdateTime(user.getUpdateTime());
+        userVO.setUserRole(user.getUserRole());
+        userVO.setTags(user.getTags());
+        return userVO;
+    }
+
+    /**
+     * 用户 => 脱敏后的用户（不包含密码、更新时间和逻辑删除字段）
+     *
+     * @param user
+     * @return
+     */
+    public static User toSafeUser(User user) {
+        if (user == null) {
+            return null;
+        }
+        User safetyUser = new User();
+        safetyUser.setId(user.getId());
+        safetyUser.setUsername(user.getUsername());
+        safetyUser.setUserAccount(user.getUserAccount());
+        safetyUser.setAvatarUrl(user.getAvatarUrl());
+        safetyUser.setAvatarVariants(user.getAvatarVariants());
+        safetyUser.setGender(user.getGender());
+        safetyUser.setPhone(user.getPhone());
+        safetyUser.setEmail(user.getEmail());
+        safetyUser.setUserRole(user.getUserRole());
+        safetyUser.setUserStatus(user.getUserStatus());
+        safetyUser.setCreateTime(user.getCreateTime());
+        safetyUser.setTags(user.getTags());
+        safetyUser.setProfile(user.getProfile());
+        safetyUser.setVersion(user.getVersion());
+        return safetyUser;
+    }
+}
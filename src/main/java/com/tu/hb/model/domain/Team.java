@@ -1,6 +1,7 @@
 package com.tu.hb.model.domain;
 
 import com.baomidou.mybatisplus.annotation.TableLogic;
+import com.baomidou.mybatisplus.annotation.Version;
 import com.fasterxml.jackson.annotation.JsonFormat;
 import lombok.Data;
 import org.springframework.format.annotation.DateTimeFormat;
@@ -29,6 +30,11 @@ public class Team implements Serializable {
      */
     private String avatarUrl;
 
+    /**
+     * 头像缩略图（JSON：边长 => 访问地址），为空表示还没有生成
+     */
+    private String avatarVariants;
+
     /**
      * 队伍描述
      */
@@ -77,5 +83,11 @@ public class Team implements Serializable {
     @TableLogic
     private Integer isDelete;
 
+    /**
+     * 乐观锁版本号
+     */
+    @Version
+    private Integer version;
+
     private static final long serialVersionUID = 1L;
 }
\ No newline at end of file
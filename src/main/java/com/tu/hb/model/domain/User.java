@@ -30,8 +30,9 @@ public class User implements Serializable {
     private String userAccount;
 
     /**
-     * 密码
+     * 密码（默认不查询，只在写入时使用）
      */
+    @TableField(select = false)
     private String userPassword;
 
     /**
@@ -39,6 +40,11 @@ public class User implements Serializable {
      */
     private String avatarUrl;
 
+    /**
+     * 头像缩略图（JSON：边长 => 访问地址），为空表示还没有生成
+     */
+    private String avatarVariants;
+
     /**
      * 性别
      */
@@ -70,10 +76,16 @@ public class User implements Serializable {
     private Date updateTime;
 
     /**
-     * 逻辑删除
+     * 逻辑删除：0-未删除，删除时置为自身 id（删除标记），
+     * 账号唯一索引为 (userAccount, isDelete)，已删除的账号可以重新注册
      */
-    @TableLogic
-    private Integer isDelete;
+    @TableLogic(value = "0", delval = "id")
+    private Long isDelete;
+
+    /**
+     * 星球编号（批量导入的用户唯一标识）
+     */
+    private String planetCode;
 
     /**
      * 0-普通用户 1-管理员
@@ -89,6 +101,12 @@ public class User implements Serializable {
      */
     private String profile;
 
+    /**
+     * 乐观锁版本号
+     */
+    @Version
+    private Integer version;
+
     @TableField(exist = false)
     private static final long serialVersionUID = 1L;
 }
\ No newline at end of file
@@ -0,0 +1,54 @@
+package com.tu.hb.model.dto;
+
+import lombok.Data;
+
+import java.io.Serializable;
+
+/**
+ * 分片上传会话（保存在 Redis 中，断点续传时恢复）
+ */
+@Data
+public class MultipartUploadSession implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 分片上传 id
+     */
+    private String uploadId;
+
+    /**
+     * 对象键
+     */
+    private String key;
+
+    /**
+     * 业务
+     */
+    private String biz;
+
+    /**
+     * 上传用户 id
+     */
+    private Long userId;
+
+    /**
+     * 文件大小（字节）
+     */
+    private Long fileSize;
+
+    /**
+     * 分片大小（字节），最后一个分片可以更小
+     */
+    private Long partSize;
+
+    /**
+     * 分片数量
+     */
+    private Integer partCount;
+
+    /**
+     * 内容类型
+     */
+    private String contentType;
+}
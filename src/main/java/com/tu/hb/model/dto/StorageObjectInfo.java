@@ -0,0 +1,35 @@
+package com.tu.hb.model.dto;
+
+import lombok.Data;
+
+import java.io.Serializable;
+import java.util.Date;
+
+/**
+ * 存储对象的元信息
+ */
+@Data
+public class StorageObjectInfo implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 内容长度（字节）
+     */
+    private long contentLength;
+
+    /**
+     * 内容类型
+     */
+    private String contentType;
+
+    /**
+     * ETag
+     */
+    private String eTag;
+
+    /**
+     * 最后修改时间
+     */
+    private Date lastModified;
+}
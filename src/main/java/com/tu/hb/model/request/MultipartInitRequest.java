@@ -0,0 +1,34 @@
+package com.tu.hb.model.request;
+
+import lombok.Data;
+
+import java.io.Serializable;
+
+/**
+ * 初始化分片上传请求
+ */
+@Data
+public class MultipartInitRequest implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 业务
+     */
+    private String biz;
+
+    /**
+     * 文件名
+     */
+    private String fileName;
+
+    /**
+     * 文件大小（字节）
+     */
+    private Long fileSize;
+
+    /**
+     * 内容类型
+     */
+    private String contentType;
+}
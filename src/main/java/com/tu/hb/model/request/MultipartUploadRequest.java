@@ -0,0 +1,19 @@
+package com.tu.hb.model.request;
+
+import lombok.Data;
+
+import java.io.Serializable;
+
+/**
+ * 分片上传完成、取消请求
+ */
+@Data
+public class MultipartUploadRequest implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 分片上传 id
+     */
+    private String uploadId;
+}
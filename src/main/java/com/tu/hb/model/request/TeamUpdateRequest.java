@@ -51,4 +51,9 @@ public class TeamUpdateRequest implements Serializable {
     @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss", timezone = "GMT+8")
     private Date expireTime;
 
+    /**
+     * 版本号（乐观锁，不传时使用服务端读取到的版本）
+     */
+    private Integer version;
+
 }
@@ -0,0 +1,24 @@
+package com.tu.hb.model.request;
+
+import lombok.Data;
+
+import java.io.Serializable;
+
+/**
+ * 直传完成回调请求
+ */
+@Data
+public class UploadCompleteRequest implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 业务
+     */
+    private String biz;
+
+    /**
+     * 预签名时返回的对象键
+     */
+    private String key;
+}
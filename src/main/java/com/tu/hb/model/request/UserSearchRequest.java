@@ -0,0 +1,34 @@
+package com.tu.hb.model.request;
+
+import lombok.Data;
+
+import java.io.Serializable;
+
+/**
+ * 管理员搜索用户请求
+ */
+@Data
+public class UserSearchRequest implements Serializable {
+
+    private static final long serialVersionUID = 3920185117204856617L;
+
+    /**
+     * 昵称关键词，为空时按 id 顺序列出全部用户
+     */
+    private String username;
+
+    /**
+     * 匹配方式：prefix（前缀，默认）| contains（包含，至少 2 个字符）
+     */
+    private String matchMode;
+
+    /**
+     * 每页条数
+     */
+    private Integer pageSize;
+
+    /**
+     * 上一页返回的 nextCursor，为空时查询第一页
+     */
+    private String cursor;
+}
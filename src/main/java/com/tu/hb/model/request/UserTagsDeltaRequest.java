@@ -0,0 +1,32 @@
+package com.tu.hb.model.request;
+
+import lombok.Data;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * 增量修改用户标签请求体
+ *
+ * @author The tu
+ */
+@Data
+public class UserTagsDeltaRequest implements Serializable {
+
+    private static final long serialVersionUID = 6217460113384726930L;
+    /**
+     * 用户id
+     */
+    private Long id;
+
+    /**
+     * 要添加的标签
+     */
+    private List<String> add;
+
+    /**
+     * 要移除的标签
+     */
+    private List<String> remove;
+
+}
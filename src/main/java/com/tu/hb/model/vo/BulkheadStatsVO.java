@@ -0,0 +1,49 @@
+package com.tu.hb.model.vo;
+
+import lombok.Data;
+
+import java.io.Serializable;
+
+/**
+ * 舱壁隔离线程池统计信息
+ */
+@Data
+public class BulkheadStatsVO implements Serializable {
+
+    /**
+     * 正在执行的任务数
+     */
+    private int activeCount;
+
+    /**
+     * 当前线程数
+     */
+    private int poolSize;
+
+    /**
+     * 最大线程数
+     */
+    private int maxPoolSize;
+
+    /**
+     * 排队中的任务数
+     */
+    private int queueSize;
+
+    /**
+     * 队列容量
+     */
+    private int queueCapacity;
+
+    /**
+     * 已完成的任务数
+     */
+    private long completedCount;
+
+    /**
+     * 被拒绝的请求数
+     */
+    private long rejectedCount;
+
+    private static final long serialVersionUID = 1L;
+}
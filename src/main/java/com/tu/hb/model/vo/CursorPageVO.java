@@ -0,0 +1,30 @@
+package com.tu.hb.model.vo;
+
+import lombok.Data;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * 游标分页结果：下一页携带 nextCursor 查询，从上一页最后一条记录之后继续，翻页深度不影响查询速度
+ */
+@Data
+public class CursorPageVO<T> implements Serializable {
+
+    /**
+     * 当前页数据
+     */
+    private List<T> records;
+
+    /**
+     * 是否还有下一页
+     */
+    private boolean hasMore;
+
+    /**
+     * 下一页的游标，没有下一页时为 null
+     */
+    private String nextCursor;
+
+    private static final long serialVersionUID = 1L;
+}
@@ -0,0 +1,40 @@
+package com.tu.hb.model.vo;
+
+import lombok.Data;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * 分片上传信息
+ */
+@Data
+public class MultipartUploadVO implements Serializable {
+
+    /**
+     * 分片上传 id
+     */
+    private String uploadId;
+
+    /**
+     * 对象键
+     */
+    private String key;
+
+    /**
+     * 分片大小（字节），最后一个分片为剩余大小
+     */
+    private Long partSize;
+
+    /**
+     * 分片数量
+     */
+    private Integer partCount;
+
+    /**
+     * 已上传的分片序号，断点续传时跳过
+     */
+    private List<Integer> uploadedPartNumbers;
+
+    private static final long serialVersionUID = 1L;
+}
@@ -0,0 +1,30 @@
+package com.tu.hb.model.vo;
+
+import lombok.Data;
+
+import java.io.Serializable;
+import java.util.Date;
+
+/**
+ * 预签名直传信息
+ */
+@Data
+public class PresignUploadVO implements Serializable {
+
+    /**
+     * 上传地址（PUT，请求头 Content-Length、Content-Type 需与申请时一致）
+     */
+    private String uploadUrl;
+
+    /**
+     * 对象键，上传完成后回调时传回
+     */
+    private String key;
+
+    /**
+     * 上传地址过期时间
+     */
+    private Date expireTime;
+
+    private static final long serialVersionUID = 1L;
+}
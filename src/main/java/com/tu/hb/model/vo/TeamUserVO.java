@@ -78,6 +78,11 @@ public class TeamUserVO implements Serializable {
      */
     private String avatarUrl;
 
+    /**
+     * 头像缩略图（JSON：边长 => 访问地址），为空表示还没有生成
+     */
+    private String avatarVariants;
+
     /**
      * 是否已加入队伍
      */
@@ -28,6 +28,11 @@ public class UserVO implements Serializable {
      */
     private String avatarUrl;
 
+    /**
+     * 头像缩略图（JSON：边长 => 访问地址），为空表示还没有生成
+     */
+    private String avatarVariants;
+
     /**
      * 性别
      */
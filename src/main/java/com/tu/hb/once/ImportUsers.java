@@ -21,10 +21,12 @@ public class ImportUsers {
         StopWatch stopWatch = new StopWatch();
         stopWatch.start();
         final int INSERT_NUM = 1000;
+        // 账号有唯一索引，每次运行使用不同的前缀
+        String accountPrefix = "fakeUser" + System.currentTimeMillis();
         for (int i = 0; i < INSERT_NUM; i++) {
             User user = new User();
             user.setUsername("假用户");
-            user.setUserAccount("fakeUser");
+            user.setUserAccount(accountPrefix + "_" + i);
             user.setUserPassword("12345678");
             user.setAvatarUrl("https://fastly.jsdelivr.net/npm/@vant/assets/ipad.jpeg");
             user.setGender(0);
@@ -0,0 +1,35 @@
+package com.tu.hb.once;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.Resource;
+
+/**
+ * 启动时导入用户，只在指定文件时生效：java -jar hb.jar --hb.import.file=/data/users.xlsx
+ * 中途失败后用同样的参数重新启动，从断点继续
+ */
+@Component
+@ConditionalOnProperty(prefix = "hb.import", name = "file")
+@Slf4j
+public class UserImportCommand implements ApplicationRunner {
+
+    @Value("${hb.import.file}")
+    private String fileName;
+
+    @Resource
+    private UserImporter userImporter;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        log.info("user import start, file = {}", fileName);
+        UserImportResult userImportResult = userImporter.importUsers(fileName);
+        if (!userImportResult.isFinished()) {
+            log.error("user import not finished, run again with the same file to resume");
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.tu.hb.once;
+
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * 批量导入用户的结果
+ */
+@Data
+public class UserImportResult {
+
+    /**
+     * 读取的数据行数（不含表头）
+     */
+    private long totalRows;
+
+    /**
+     * 上次导入已提交、本次跳过的行数
+     */
+    private long skippedRows;
+
+    /**
+     * 插入的行数
+     */
+    private long insertedRows;
+
+    /**
+     * 星球编号已存在被忽略的行数
+     */
+    private long duplicateRows;
+
+    /**
+     * 缺少星球编号的行数
+     */
+    private long invalidRows;
+
+    /**
+     * 插入失败的行数
+     */
+    private long failedRows;
+
+    /**
+     * 是否全部处理完成（中途失败时可以重新执行，从断点继续）
+     */
+    private boolean finished;
+
+    /**
+     * 错误信息（按批次，最多保留 MAX_ERROR_NUM 条）
+     */
+    private List<String> errorList;
+
+    /**
+     * 耗时（毫秒）
+     */
+    private long costMillis;
+}
@@ -0,0 +1,438 @@
+package com.tu.hb.once;
+
+import cn.hutool.crypto.digest.DigestUtil;
+import com.alibaba.excel.EasyExcel;
+import com.alibaba.excel.context.AnalysisContext;
+import com.alibaba.excel.read.listener.ReadListener;
+import com.tu.hb.common.ErrorCode;
+import com.tu.hb.exception.BusinessException;
+import com.tu.hb.manage.UserAccountBloomFilter;
+import com.tu.hb.mapper.UserMapper;
+import com.tu.hb.model.domain.User;
+import com.tu.hb.service.UserService;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.exception.ExceptionUtils;
+import org.redisson.api.RBucket;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.LongCodec;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StopWatch;
+
+import javax.annotation.Resource;
+import java.io.File;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import static com.tu.hb.constant.RedisConstant.USER_IMPORT_CHECKPOINT_KEY;
+import static com.tu.hb.constant.RedisConstant.USER_IMPORT_CHECKPOINT_TTL_DAYS;
+
+/**
+ * 从 Excel 批量导入用户（第一列星球编号，第二列昵称，见 TestUserInfo）
+ * 读取线程用 EasyExcel 流式解析（不把整个表格读入内存），每 BATCH_SIZE 行组成一个批次放入有界队列，队列满时读取阻塞（背压）；
+ * 多个写入线程并发执行多行 insert，插入前过滤已存在的星球编号，唯一索引冲突时逐行重试。连续提交的最后一行记录为断点，中途失败后重新执行从断点继续
+ */
+@Component
+@Slf4j
+public class UserImporter {
+
+    /**
+     * 每批插入的行数
+     */
+    public static final int BATCH_SIZE = 1000;
+
+    /**
+     * 写入线程数
+     */
+    private static final int WORKER_NUM = 4;
+
+    /**
+     * 等待写入的批次上限，内存中最多有 (WORKER_NUM + QUEUE_CAPACITY + 1) 个批次
+     */
+    private static final int QUEUE_CAPACITY = WORKER_NUM * 2;
+
+    /**
+     * 保留的错误信息条数
+     */
+    public static final int MAX_ERROR_NUM = 1000;
+
+    /**
+     * 导入用户的初始密码
+     */
+    private static final String DEFAULT_PASSWORD = "12345678";
+
+    /**
+     * 导入用户的账号前缀，账号为 前缀 + 星球编号
+     */
+    private static final String ACCOUNT_PREFIX = "planet_";
+
+    /**
+     * 结束标记，每个写入线程取到一个后退出
+     */
+    private static final ImportBatch POISON = new ImportBatch(-1, Collections.emptyList(), Collections.emptyList());
+
+    @Resource
+    private UserMapper userMapper;
+
+    @Resource
+    private UserService userService;
+
+    @Resource
+    private UserAccountBloomFilter userAccountBloomFilter;
+
+    @Resource
+    private RedissonClient redissonClient;
+
+    /**
+     * 导入用户
+     *
+     * @param fileName Excel 文件路径
+     * @return
+     */
+    public UserImportResult importUsers(String fileName) {
+        File file = new File(fileName);
+        if (!file.isFile()) {
+            throw new BusinessException(ErrorCode.PARAMS_ERROR, "文件不存在");
+        }
+        StopWatch stopWatch = new StopWatch();
+        stopWatch.start();
+        // 同一路径、同样大小的文件视为同一次导入
+        String fileKey = DigestUtil.md5Hex(file.getAbsolutePath() + ":" + file.length());
+        RBucket<Long> checkpointBucket = redissonClient.getBucket(String.format(USER_IMPORT_CHECKPOINT_KEY, fileKey), LongCodec.INSTANCE);
+        Long checkpoint = checkpointBucket.get();
+        ImportContext context = new ImportContext(checkpoint == null ? -1 : checkpoint, checkpointBucket,
+                userService.getEncryptPassword(DEFAULT_PASSWORD));
+        if (checkpoint != null) {
+            log.info("user import resume, file = {}, checkpoint row = {}", fileName, checkpoint);
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(WORKER_NUM, new CustomizableThreadFactory("user-import-"));
+        for (int i = 0; i < WORKER_NUM; i++) {
+            executor.execute(() -> runWorker(context));
+        }
+        try {
+            EasyExcel.read(file, TestUserInfo.class, new ImportReadListener(context)).sheet().doRead();
+        } catch (Exception e) {
+            // 写入失败时读取线程主动中止，错误已由写入线程记录
+            if (!context.aborted) {
+                context.abort("read excel error", e);
+            }
+        } finally {
+            try {
+                for (int i = 0; i < WORKER_NUM; i++) {
+                    context.queue.put(POISON);
+                }
+                executor.shutdown();
+                if (!executor.awaitTermination(1, TimeUnit.HOURS)) {
+                    // 写入线程仍在运行，不能删除断点，也不能报告完成
+                    executor.shutdownNow();
+                    context.abort("import timeout", new TimeoutException("writers not terminated in 1 hour"));
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                executor.shutdownNow();
+                context.abort("import interrupted", e);
+            }
+        }
+        if (!context.aborted) {
+            checkpointBucket.delete();
+        }
+        stopWatch.stop();
+        UserImportResult userImportResult = context.toResult();
+        userImportResult.setCostMillis(stopWatch.getTotalTimeMillis());
+        log.info("user import end, file = {}, result = {}", fileName, userImportResult);
+        return userImportResult;
+    }
+
+    private void runWorker(ImportContext context) {
+        while (true) {
+            ImportBatch batch;
+            try {
+                batch = context.queue.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            if (batch == POISON) {
+                return;
+            }
+            // 已中止时继续取出批次但不处理，保证读取线程不会阻塞在队列上
+            if (context.aborted) {
+                continue;
+            }
+            try {
+                insertBatch(batch, context);
+                context.commit(batch);
+            } catch (Exception e) {
+                context.abort(String.format("rows %d-%d insert error", batch.getFirstRow(), batch.getLastRow()), e);
+            }
+        }
+    }
+
+    /**
+     * 插入一个批次：先去掉批次内和库中已存在的星球编号（记为重复），其余行一条多行 insert 插入
+     * 插入语句不忽略错误，超长、非空列为空、账号已被占用等都会报错，此时逐行插入找出失败的行，其余行正常导入
+     */
+    private void insertBatch(ImportBatch batch, ImportContext context) {
+        Set<String> planetCodeSet = new LinkedHashSet<>();
+        List<Integer> rowIndexList = new ArrayList<>(batch.userList.size());
+        List<User> userList = new ArrayList<>(batch.userList.size());
+        for (int i = 0; i < batch.userList.size(); i++) {
+            User user = batch.userList.get(i);
+            if (planetCodeSet.add(user.getPlanetCode())) {
+                rowIndexList.add(batch.rowIndexList.get(i));
+                userList.add(user);
+            } else {
+                context.duplicateRows.incrementAndGet();
+            }
+        }
+        Set<String> existPlanetCodeSet = new HashSet<>(userMapper.selectExistPlanetCodes(new ArrayList<>(planetCodeSet)));
+        if (!existPlanetCodeSet.isEmpty()) {
+            for (int i = userList.size() - 1; i >= 0; i--) {
+                if (existPlanetCodeSet.contains(userList.get(i).getPlanetCode())) {
+                    rowIndexList.remove(i);
+                    userList.remove(i);
+                    context.duplicateRows.incrementAndGet();
+                }
+            }
+        }
+        if (userList.isEmpty()) {
+            return;
+        }
+        List<String> insertedAccountList = new ArrayList<>(userList.size());
+        try {
+            userMapper.insertBatchUsers(userList);
+            context.insertedRows.addAndGet(userList.size());
+            userList.forEach(user -> insertedAccountList.add(user.getUserAccount()));
+        } catch (DataIntegrityViolationException e) {
+            // 唯一索引冲突（DuplicateKeyException）或列约束错误，整条语句没有插入任何行，逐行重试
+            context.addError(String.format("rows %d-%d batch insert failed, retry row by row: %s",
+                    batch.getFirstRow(), batch.getLastRow(), ExceptionUtils.getRootCauseMessage(e)));
+            // 预查询之后并发导入可能已写入相同的星球编号，重新检查
+            Set<String> concurrentExistSet = new HashSet<>(userMapper.selectExistPlanetCodes(
+                    userList.stream().map(User::getPlanetCode).collect(Collectors.toList())));
+            for (int i = 0; i < userList.size(); i++) {
+                User user = userList.get(i);
+                if (concurrentExistSet.contains(user.getPlanetCode())) {
+                    context.duplicateRows.incrementAndGet();
+                    continue;
+                }
+                try {
+                    userMapper.insertBatchUsers(Collections.singletonList(user));
+                    context.insertedRows.incrementAndGet();
+                    insertedAccountList.add(user.getUserAccount());
+                } catch (DataIntegrityViolationException ex) {
+                    if (ex instanceof DuplicateKeyException
+                            && !userMapper.selectExistPlanetCodes(Collections.singletonList(user.getPlanetCode())).isEmpty()) {
+                        // 星球编号冲突：并发导入已写入，视为重复
+                        context.duplicateRows.incrementAndGet();
+                        continue;
+                    }
+                    context.failedRows.incrementAndGet();
+                    context.addError(String.format("row %d planetCode %s account %s insert failed: %s",
+                            rowIndexList.get(i), user.getPlanetCode(), user.getUserAccount(),
+                            ExceptionUtils.getRootCauseMessage(ex)));
+                }
+            }
+        }
+        userAccountBloomFilter.addAll(insertedAccountList);
+    }
+
+    /**
+     * 读取监听器：每次导入新建一个，只在读取线程中使用
+     */
+    private static class ImportReadListener implements ReadListener<TestUserInfo> {
+
+        private final ImportContext context;
+
+        private List<Integer> rowIndexList = new ArrayList<>(BATCH_SIZE);
+
+        private List<User> userList = new ArrayList<>(BATCH_SIZE);
+
+        private long nextSeq = 0;
+
+        ImportReadListener(ImportContext context) {
+            this.context = context;
+        }
+
+        @Override
+        public void invoke(TestUserInfo data, AnalysisContext analysisContext) {
+            if (context.aborted) {
+                throw new IllegalStateException("user import aborted");
+            }
+            int rowIndex = analysisContext.readRowHolder().getRowIndex();
+            context.totalRows++;
+            if (rowIndex <= context.checkpoint) {
+                context.skippedRows++;
+                return;
+            }
+            String planetCode = StringUtils.trim(data.getPlantCode());
+            if (StringUtils.isBlank(planetCode)) {
+                context.invalidRows.incrementAndGet();
+                context.addError(String.format("row %d planetCode is blank", rowIndex));
+                return;
+            }
+            User user = new User();
+            user.setPlanetCode(planetCode);
+            user.setUserAccount(ACCOUNT_PREFIX + planetCode);
+            user.setUsername(StringUtils.trim(data.getUsername()));
+            user.setUserPassword(context.encryptPassword);
+            user.setUserStatus(0);
+            user.setUserRole(0);
+            user.setTags("[]");
+            rowIndexList.add(rowIndex);
+            userList.add(user);
+            if (userList.size() >= BATCH_SIZE) {
+                flush();
+            }
+        }
+
+        @Override
+        public void doAfterAllAnalysed(AnalysisContext analysisContext) {
+            if (!userList.isEmpty()) {
+                flush();
+            }
+        }
+
+        @Override
+        public void onException(Exception exception, AnalysisContext analysisContext) throws Exception {
+            throw exception;
+        }
+
+        /**
+         * 放入队列，队列满时阻塞，读取速度跟随写入速度
+         */
+        private void flush() {
+            try {
+                context.queue.put(new ImportBatch(nextSeq++, rowIndexList, userList));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("user import interrupted", e);
+            }
+            rowIndexList = new ArrayList<>(BATCH_SIZE);
+            userList = new ArrayList<>(BATCH_SIZE);
+        }
+    }
+
+    /**
+     * 一个批次：序号按读取顺序递增，用于计算连续提交的断点
+     */
+    private static class ImportBatch {
+
+        private final long seq;
+
+        private final List<Integer> rowIndexList;
+
+        private final List<User> userList;
+
+        ImportBatch(long seq, List<Integer> rowIndexList, List<User> userList) {
+            this.seq = seq;
+            this.rowIndexList = rowIndexList;
+            this.userList = userList;
+        }
+
+        int getFirstRow() {
+            return rowIndexList.get(0);
+        }
+
+        int getLastRow() {
+            return rowIndexList.get(rowIndexList.size() - 1);
+        }
+    }
+
+    /**
+     * 一次导入的共享状态
+     */
+    private static class ImportContext {
+
+        private final BlockingQueue<ImportBatch> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+
+        /**
+         * 上次导入的断点，行号不大于它的行跳过
+         */
+        private final long checkpoint;
+
+        private final RBucket<Long> checkpointBucket;
+
+        private final String encryptPassword;
+
+        /**
+         * 只在读取线程中修改
+         */
+        private long totalRows;
+
+        private long skippedRows;
+
+        private final AtomicLong invalidRows = new AtomicLong();
+
+        private final AtomicLong insertedRows = new AtomicLong();
+
+        private final AtomicLong duplicateRows = new AtomicLong();
+
+        private final AtomicLong failedRows = new AtomicLong();
+
+        private final List<String> errorList = Collections.synchronizedList(new ArrayList<>());
+
+        /**
+         * 已提交但前面还有批次未提交的批次：序号 => 最后一行的行号
+         */
+        private final Map<Long, Integer> committedMap = new HashMap<>();
+
+        private long nextCommitSeq = 0;
+
+        private volatile boolean aborted = false;
+
+        ImportContext(long checkpoint, RBucket<Long> checkpointBucket, String encryptPassword) {
+            this.checkpoint = checkpoint;
+            this.checkpointBucket = checkpointBucket;
+            this.encryptPassword = encryptPassword;
+        }
+
+        /**
+         * 批次提交后推进断点：只有之前的批次全部提交，断点才能越过这个批次
+         */
+        synchronized void commit(ImportBatch batch) {
+            committedMap.put(batch.seq, batch.getLastRow());
+            Integer lastRow = null;
+            while (committedMap.containsKey(nextCommitSeq)) {
+                lastRow = committedMap.remove(nextCommitSeq++);
+            }
+            if (lastRow != null) {
+                checkpointBucket.set((long) lastRow, Duration.ofDays(USER_IMPORT_CHECKPOINT_TTL_DAYS));
+            }
+        }
+
+        void abort(String message, Exception e) {
+            log.error("user import aborted, {}", message, e);
+            addError(message + ": " + ExceptionUtils.getRootCauseMessage(e));
+            aborted = true;
+        }
+
+        void addError(String error) {
+            log.warn("user import error, {}", error);
+            synchronized (errorList) {
+                if (errorList.size() < MAX_ERROR_NUM) {
+                    errorList.add(error);
+                }
+            }
+        }
+
+        UserImportResult toResult() {
+            UserImportResult userImportResult = new UserImportResult();
+            userImportResult.setTotalRows(totalRows);
+            userImportResult.setSkippedRows(skippedRows);
+            userImportResult.setInsertedRows(insertedRows.get());
+            userImportResult.setDuplicateRows(duplicateRows.get());
+            userImportResult.setInvalidRows(invalidRows.get());
+            userImportResult.setFailedRows(failedRows.get());
+            userImportResult.setFinished(!aborted);
+            userImportResult.setErrorList(new ArrayList<>(errorList));
+            return userImportResult;
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.tu.hb.service;
+
+import com.tu.hb.constant.ExportFormatEnum;
+
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * 数据导出服务（仅管理员）：游标逐行读取，逐行写入响应，内存占用与数据量无关
+ */
+public interface ExportService {
+
+    /**
+     * 导出用户（不含密码）
+     * @param exportFormat
+     * @param response
+     * @return 导出的行数
+     * @throws IOException
+     */
+    long exportUsers(ExportFormatEnum exportFormat, HttpServletResponse response) throws IOException;
+
+    /**
+     * 导出队伍（不含密码）
+     * @param exportFormat
+     * @param response
+     * @return 导出的行数
+     * @throws IOException
+     */
+    long exportTeams(ExportFormatEnum exportFormat, HttpServletResponse response) throws IOException;
+}
@@ -0,0 +1,75 @@
+package com.tu.hb.service;
+
+import com.tu.hb.model.domain.User;
+import com.tu.hb.model.request.MultipartInitRequest;
+import com.tu.hb.model.request.PresignUploadRequest;
+import com.tu.hb.model.request.UploadCompleteRequest;
+import com.tu.hb.model.vo.MultipartUploadVO;
+import com.tu.hb.model.vo.PresignUploadVO;
+
+import java.io.InputStream;
+
+/**
+ * 文件服务
+ */
+public interface FileService {
+
+    /**
+     * 校验上传请求并生成预签名上传地址
+     * @param presignUploadRequest
+     * @param loginUser
+     * @return
+     */
+    PresignUploadVO presignUpload(PresignUploadRequest presignUploadRequest, User loginUser);
+
+    /**
+     * 直传完成回调：校验对象归属和大小
+     * @param uploadCompleteRequest
+     * @param loginUser
+     * @return 可访问地址
+     */
+    String completeUpload(UploadCompleteRequest uploadCompleteRequest, User loginUser);
+
+    /**
+     * 初始化分片上传
+     * @param multipartInitRequest
+     * @param loginUser
+     * @return
+     */
+    MultipartUploadVO initMultipartUpload(MultipartInitRequest multipartInitRequest, User loginUser);
+
+    /**
+     * 上传一个分片（可并行、可重传）
+     * @param uploadId
+     * @param partNumber 分片序号（从 1 开始）
+     * @param inputStream 分片内容，由调用方关闭
+     * @param contentLength 分片大小
+     * @param loginUser
+     * @return
+     */
+    boolean uploadPart(String uploadId, Integer partNumber, InputStream inputStream, long contentLength, User loginUser);
+
+    /**
+     * 查询分片上传进度，用于断点续传
+     * @param uploadId
+     * @param loginUser
+     * @return
+     */
+    MultipartUploadVO getMultipartUpload(String uploadId, User loginUser);
+
+    /**
+     * 合并分片，完成上传
+     * @param uploadId
+     * @param loginUser
+     * @return 可访问地址
+     */
+    String completeMultipartUpload(String uploadId, User loginUser);
+
+    /**
+     * 取消分片上传
+     * @param uploadId
+     * @param loginUser
+     * @return
+     */
+    boolean abortMultipartUpload(String uploadId, User loginUser);
+}
@@ -2,7 +2,10 @@ package com.tu.hb.service;
 
 import com.baomidou.mybatisplus.extension.service.IService;
 import com.tu.hb.model.domain.User;
+import com.tu.hb.model.request.UserSearchRequest;
+import com.tu.hb.model.request.UserTagsDeltaRequest;
 import com.tu.hb.model.request.UserTagsUpdateRequest;
+import com.tu.hb.model.vo.CursorPageVO;
 
 import javax.servlet.http.HttpServletRequest;
 import java.util.List;
@@ -43,6 +46,13 @@ public interface UserService extends IService<User> {
      */
     User setSafetyUser(User originUser);
 
+    /**
+     * 密码加密
+     * @param userPassword 明文密码
+     * @return
+     */
+    String getEncryptPassword(String userPassword);
+
     /**
      * 用户退出
      * @param request
@@ -71,6 +81,20 @@ public interface UserService extends IService<User> {
      */
     User getLoginUser(HttpServletRequest request);
 
+    /**
+     * 获取当前登录用户（只包含 id 和 userRole）
+     * @param request
+     * @return 未登录时返回 null
+     */
+    User getLoginUserOrNull(HttpServletRequest request);
+
+    /**
+     * 获取脱敏后的完整用户信息（读取用户信息缓存）
+     * @param userId
+     * @return 用户不存在时返回 null
+     */
+    User getUserProfile(long userId);
+
     /**
      * 是否为管理员
      * @param request
@@ -100,4 +124,19 @@ public interface UserService extends IService<User> {
      * @return
      */
     boolean updateTags(UserTagsUpdateRequest tagsUpdateRequest, User loginUser);
+
+    /**
+     * 增量修改用户标签
+     * @param tagsDeltaRequest
+     * @param loginUser
+     * @return
+     */
+    boolean updateTagsDelta(UserTagsDeltaRequest tagsDeltaRequest, User loginUser);
+
+    /**
+     * 管理员搜索用户（游标分页）
+     * @param userSearchRequest
+     * @return
+     */
+    CursorPageVO<User> searchUsers(UserSearchRequest userSearchRequest);
 }
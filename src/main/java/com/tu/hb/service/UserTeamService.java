@@ -3,6 +3,8 @@ package com.tu.hb.service;
 import com.baomidou.mybatisplus.extension.service.IService;
 import com.tu.hb.model.domain.UserTeam;
 
+import java.util.Set;
+
 /**
 * @author The tu
 * @description 针对表【user_team(用户队伍关系)】的数据库操作Service
@@ -10,4 +12,16 @@ import com.tu.hb.model.domain.UserTeam;
 */
 public interface UserTeamService extends IService<UserTeam> {
 
+    /**
+     * 获取用户已加入的队伍 id 集合（优先读缓存）
+     * @param userId
+     * @return
+     */
+    Set<Long> listJoinTeamIds(Long userId);
+
+    /**
+     * 用户加入或退出队伍后使已加入队伍缓存失效（事务提交后执行）
+     * @param userId
+     */
+    void invalidateJoinTeamAfterCommit(Long userId);
 }
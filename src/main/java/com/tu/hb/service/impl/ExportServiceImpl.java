@@ -0,0 +1,106 @@
+package com.tu.hb.service.impl;
+
+import cn.hutool.core.date.DateUtil;
+import com.tu.hb.constant.ExportFormatEnum;
+import com.tu.hb.mapper.TeamMapper;
+import com.tu.hb.mapper.UserMapper;
+import com.tu.hb.model.domain.Team;
+import com.tu.hb.model.domain.User;
+import com.tu.hb.service.ExportService;
+import com.tu.hb.utils.ExportWriter;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.ibatis.cursor.Cursor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StopWatch;
+
+import javax.annotation.Resource;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * 数据导出服务实现
+ */
+@Service
+@Slf4j
+public class ExportServiceImpl implements ExportService {
+
+    private static final List<String> USER_HEAD_LIST = Arrays.asList("id", "昵称", "账号", "头像", "性别", "电话", "邮箱",
+            "状态", "星球编号", "角色", "标签", "个人描述", "创建时间");
+
+    private static final List<String> TEAM_HEAD_LIST = Arrays.asList("id", "队伍名称", "描述", "队长id", "最大人数", "状态",
+            "过期时间", "创建时间");
+
+    @Resource
+    private UserMapper userMapper;
+
+    @Resource
+    private TeamMapper teamMapper;
+
+    /**
+     * 游标必须在事务中遍历，否则查询结束后连接被释放，游标随之关闭
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public long exportUsers(ExportFormatEnum exportFormat, HttpServletResponse response) throws IOException {
+        try (Cursor<User> cursor = userMapper.streamUsers()) {
+            StopWatch stopWatch = new StopWatch();
+            stopWatch.start();
+            ExportWriter exportWriter = ExportWriter.create(exportFormat, USER_HEAD_LIST, prepareResponse(response, "user", exportFormat));
+            try {
+                for (User user : cursor) {
+                    exportWriter.writeRow(Arrays.asList(user.getId(), user.getUsername(), user.getUserAccount(),
+                            user.getAvatarUrl(), user.getGender(), user.getPhone(), user.getEmail(), user.getUserStatus(),
+                            user.getPlanetCode(), user.getUserRole(), user.getTags(), user.getProfile(), user.getCreateTime()));
+                }
+            } finally {
+                exportWriter.close();
+            }
+            stopWatch.stop();
+            log.info("export users end, format = {}, rows = {}, cost = {}ms", exportFormat.getValue(),
+                    exportWriter.getRowCount(), stopWatch.getTotalTimeMillis());
+            return exportWriter.getRowCount();
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long exportTeams(ExportFormatEnum exportFormat, HttpServletResponse response) throws IOException {
+        try (Cursor<Team> cursor = teamMapper.streamTeams()) {
+            StopWatch stopWatch = new StopWatch();
+            stopWatch.start();
+            ExportWriter exportWriter = ExportWriter.create(exportFormat, TEAM_HEAD_LIST, prepareResponse(response, "team", exportFormat));
+            try {
+                for (Team team : cursor) {
+                    exportWriter.writeRow(Arrays.asList(team.getId(), team.getName(), team.getDescription(),
+                            team.getUserId(), team.getMaxNum(), team.getStatus(), team.getExpireTime(), team.getCreateTime()));
+                }
+            } finally {
+                exportWriter.close();
+            }
+            stopWatch.stop();
+            log.info("export teams end, format = {}, rows = {}, cost = {}ms", exportFormat.getValue(),
+                    exportWriter.getRowCount(), stopWatch.getTotalTimeMillis());
+            return exportWriter.getRowCount();
+        }
+    }
+
+    /**
+     * 设置下载响应头，不设置 Content-Length，响应以分块传输发送
+     *
+     * @return 响应输出流
+     */
+    private OutputStream prepareResponse(HttpServletResponse response, String name, ExportFormatEnum exportFormat) throws IOException {
+        String fileName = name + "_" + DateUtil.format(new Date(), "yyyyMMddHHmmss") + "." + exportFormat.getValue();
+        response.setContentType(exportFormat.getContentType());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=" + fileName);
+        // 关闭反向代理缓冲，数据逐步到达客户端
+        response.setHeader("X-Accel-Buffering", "no");
+        return response.getOutputStream();
+    }
+}
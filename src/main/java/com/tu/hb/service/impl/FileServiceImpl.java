@@ -0,0 +1,206 @@
+package com.tu.hb.service.impl;
+
+import cn.hutool.core.io.FileUtil;
+import com.tu.hb.common.ErrorCode;
+import com.tu.hb.constant.FileConstant;
+import com.tu.hb.constant.FileUploadBizEnum;
+import com.tu.hb.exception.BusinessException;
+import com.tu.hb.manage.MultipartSessionManager;
+import com.tu.hb.manage.StorageBackend;
+import com.tu.hb.model.domain.User;
+import com.tu.hb.model.dto.MultipartUploadSession;
+import com.tu.hb.model.dto.StorageObjectInfo;
+import com.tu.hb.model.request.MultipartInitRequest;
+import com.tu.hb.model.request.PresignUploadRequest;
+import com.tu.hb.model.request.UploadCompleteRequest;
+import com.tu.hb.model.vo.MultipartUploadVO;
+import com.tu.hb.model.vo.PresignUploadVO;
+import com.tu.hb.service.FileService;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.RandomStringUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.Resource;
+import java.io.InputStream;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 文件服务实现
+ */
+@Service
+@Slf4j
+public class FileServiceImpl implements FileService {
+
+    @Resource
+    private StorageBackend storageBackend;
+
+    @Resource
+    private MultipartSessionManager multipartSessionManager;
+
+    @Override
+    public PresignUploadVO presignUpload(PresignUploadRequest presignUploadRequest, User loginUser) {
+        if (presignUploadRequest == null || presignUploadRequest.getFileSize() == null) {
+            throw new BusinessException(ErrorCode.PARAMS_ERROR);
+        }
+        FileUploadBizEnum fileUploadBizEnum = FileUploadBizEnum.getEnumByValue(presignUploadRequest.getBiz());
+        if (fileUploadBizEnum == null) {
+            throw new BusinessException(ErrorCode.PARAMS_ERROR);
+        }
+        String fileName = presignUploadRequest.getFileName();
+        fileUploadBizEnum.validFile(presignUploadRequest.getFileSize(), fileName);
+        String key = buildKey(fileUploadBizEnum, loginUser, fileName);
+        Date expireTime = new Date(System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(FileConstant.PRESIGN_EXPIRE_SECONDS));
+        PresignUploadVO presignUploadVO = new PresignUploadVO();
+        presignUploadVO.setUploadUrl(storageBackend.generatePresignedPutUrl(key, expireTime,
+                presignUploadRequest.getFileSize(), presignUploadRequest.getContentType()).toString());
+        presignUploadVO.setKey(key);
+        presignUploadVO.setExpireTime(expireTime);
+        return presignUploadVO;
+    }
+
+    @Override
+    public String completeUpload(UploadCompleteRequest uploadCompleteRequest, User loginUser) {
+        if (uploadCompleteRequest == null || StringUtils.isBlank(uploadCompleteRequest.getKey())) {
+            throw new BusinessException(ErrorCode.PARAMS_ERROR);
+        }
+        FileUploadBizEnum fileUploadBizEnum = FileUploadBizEnum.getEnumByValue(uploadCompleteRequest.getBiz());
+        if (fileUploadBizEnum == null) {
+            throw new BusinessException(ErrorCode.PARAMS_ERROR);
+        }
+        String key = uploadCompleteRequest.getKey();
+        // 只能确认自己目录下的文件
+        if (!key.startsWith(buildUserDir(fileUploadBizEnum, loginUser)) || key.contains("..")) {
+            throw new BusinessException(ErrorCode.NO_AUTH);
+        }
+        StorageObjectInfo storageObjectInfo = storageBackend.getObjectInfo(key);
+        if (storageObjectInfo == null) {
+            throw new BusinessException(ErrorCode.NULL_ERROR, "文件未上传");
+        }
+        // 签名已限制大小，这里再校验一次，不符合规则的文件直接删除
+        try {
+            fileUploadBizEnum.validFile(storageObjectInfo.getContentLength(), key);
+        } catch (BusinessException e) {
+            storageBackend.deleteObject(key);
+            throw e;
+        }
+        log.info("direct upload complete, userId = {}, key = {}, size = {}", loginUser.getId(), key, storageObjectInfo.getContentLength());
+        return storageBackend.getUrl(key);
+    }
+
+    @Override
+    public MultipartUploadVO initMultipartUpload(MultipartInitRequest multipartInitRequest, User loginUser) {
+        if (multipartInitRequest == null || multipartInitRequest.getFileSize() == null || multipartInitRequest.getFileSize() <= 0) {
+            throw new BusinessException(ErrorCode.PARAMS_ERROR);
+        }
+        FileUploadBizEnum fileUploadBizEnum = FileUploadBizEnum.getEnumByValue(multipartInitRequest.getBiz());
+        if (fileUploadBizEnum == null) {
+            throw new BusinessException(ErrorCode.PARAMS_ERROR);
+        }
+        long fileSize = multipartInitRequest.getFileSize();
+        fileUploadBizEnum.validFile(fileSize, multipartInitRequest.getFileName());
+        long partSize = FileConstant.MULTIPART_PART_SIZE;
+        long partCount = (fileSize + partSize - 1) / partSize;
+        if (partCount > FileConstant.MULTIPART_MAX_PART_COUNT) {
+            throw new BusinessException(ErrorCode.PARAMS_ERROR, "文件过大");
+        }
+        String key = buildKey(fileUploadBizEnum, loginUser, multipartInitRequest.getFileName());
+        String uploadId = storageBackend.initiateMultipartUpload(key, multipartInitRequest.getContentType());
+        MultipartUploadSession session = new MultipartUploadSession();
+        session.setUploadId(uploadId);
+        session.setKey(key);
+        session.setBiz(fileUploadBizEnum.getValue());
+        session.setUserId(loginUser.getId());
+        session.setFileSize(fileSize);
+        session.setPartSize(partSize);
+        session.setPartCount((int) partCount);
+        session.setContentType(multipartInitRequest.getContentType());
+        multipartSessionManager.save(session);
+        return toMultipartUploadVO(session, Collections.emptySet());
+    }
+
+    @Override
+    public boolean uploadPart(String uploadId, Integer partNumber, InputStream inputStream, long contentLength, User loginUser) {
+        MultipartUploadSession session = getMultipartSession(uploadId, loginUser);
+        int partCount = session.getPartCount();
+        if (partNumber == null || partNumber < 1 || partNumber > partCount) {
+            throw new BusinessException(ErrorCode.PARAMS_ERROR, "分片序号错误");
+        }
+        // 除最后一个分片外大小固定，最后一个分片为剩余大小
+        long expectSize = partNumber < partCount ? session.getPartSize()
+                : session.getFileSize() - session.getPartSize() * (partCount - 1);
+        if (contentLength != expectSize) {
+            throw new BusinessException(ErrorCode.PARAMS_ERROR, "分片大小错误");
+        }
+        String eTag = storageBackend.uploadPart(session.getKey(), uploadId, partNumber, inputStream, contentLength);
+        multipartSessionManager.recordPart(uploadId, partNumber, eTag);
+        return true;
+    }
+
+    @Override
+    public MultipartUploadVO getMultipartUpload(String uploadId, User loginUser) {
+        MultipartUploadSession session = getMultipartSession(uploadId, loginUser);
+        return toMultipartUploadVO(session, multipartSessionManager.getParts(uploadId).keySet());
+    }
+
+    @Override
+    public String completeMultipartUpload(String uploadId, User loginUser) {
+        MultipartUploadSession session = getMultipartSession(uploadId, loginUser);
+        SortedMap<Integer, String> partETags = multipartSessionManager.getParts(uploadId);
+        if (partETags.size() != session.getPartCount()) {
+            throw new BusinessException(ErrorCode.PARAMS_ERROR, "分片未全部上传");
+        }
+        storageBackend.completeMultipartUpload(session.getKey(), uploadId, partETags);
+        multipartSessionManager.delete(uploadId);
+        log.info("multipart upload complete, userId = {}, key = {}, size = {}", loginUser.getId(), session.getKey(), session.getFileSize());
+        return storageBackend.getUrl(session.getKey());
+    }
+
+    @Override
+    public boolean abortMultipartUpload(String uploadId, User loginUser) {
+        MultipartUploadSession session = getMultipartSession(uploadId, loginUser);
+        storageBackend.abortMultipartUpload(session.getKey(), uploadId);
+        multipartSessionManager.delete(uploadId);
+        return true;
+    }
+
+    /**
+     * 获取分片上传会话，只能操作自己的上传任务
+     */
+    private MultipartUploadSession getMultipartSession(String uploadId, User loginUser) {
+        if (StringUtils.isBlank(uploadId)) {
+            throw new BusinessException(ErrorCode.PARAMS_ERROR);
+        }
+        MultipartUploadSession session = multipartSessionManager.get(uploadId);
+        if (session == null) {
+            throw new BusinessException(ErrorCode.NULL_ERROR, "上传任务不存在或已过期");
+        }
+        if (!session.getUserId().equals(loginUser.getId())) {
+            throw new BusinessException(ErrorCode.NO_AUTH);
+        }
+        return session;
+    }
+
+    private MultipartUploadVO toMultipartUploadVO(MultipartUploadSession session, Collection<Integer> uploadedPartNumbers) {
+        MultipartUploadVO multipartUploadVO = new MultipartUploadVO();
+        multipartUploadVO.setUploadId(session.getUploadId());
+        multipartUploadVO.setKey(session.getKey());
+        multipartUploadVO.setPartSize(session.getPartSize());
+        multipartUploadVO.setPartCount(session.getPartCount());
+        multipartUploadVO.setUploadedPartNumbers(new ArrayList<>(uploadedPartNumbers));
+        return multipartUploadVO;
+    }
+
+    /**
+     * 文件目录：根据业务、用户来划分，文件名只保留后缀，避免特殊字符影响签名
+     */
+    private String buildKey(FileUploadBizEnum fileUploadBizEnum, User loginUser, String fileName) {
+        return String.format("%s%s.%s", buildUserDir(fileUploadBizEnum, loginUser),
+                RandomStringUtils.randomAlphanumeric(16), FileUtil.getSuffix(fileName));
+    }
+
+    private String buildUserDir(FileUploadBizEnum fileUploadBizEnum, User loginUser) {
+        return String.format("/%s/%s/", fileUploadBizEnum.getValue(), loginUser.getId());
+    }
+}
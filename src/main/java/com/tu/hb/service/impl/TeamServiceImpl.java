@@ -6,7 +6,13 @@ import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
 import com.tu.hb.common.ErrorCode;
 import com.tu.hb.constant.TeamStatusEnum;
 import com.tu.hb.exception.BusinessException;
+import com.tu.hb.manage.AvatarThumbnailManager;
+import com.tu.hb.manage.TeamQuotaManager;
+import com.tu.hb.manage.UserBatchLoader;
 import com.tu.hb.mapper.TeamMapper;
+import com.tu.hb.mapper.UserTeamMapper;
+import com.tu.hb.model.convert.TeamConvert;
+import com.tu.hb.model.convert.UserConvert;
 import com.tu.hb.model.domain.Team;
 import com.tu.hb.model.domain.User;
 import com.tu.hb.model.domain.UserTeam;
@@ -16,21 +22,33 @@ import com.tu.hb.model.request.TeamJoinRequest;
 import com.tu.hb.model.request.TeamQuitRequest;
 import com.tu.hb.model.request.TeamUpdateRequest;
 import com.tu.hb.model.vo.TeamUserVO;
-import com.tu.hb.model.vo.UserVO;
 import com.tu.hb.service.TeamService;
 import com.tu.hb.service.UserService;
 import com.tu.hb.service.UserTeamService;
+import com.tu.hb.utils.DirtyFieldUtils;
+import com.tu.hb.utils.TransactionUtils;
 import org.apache.commons.collections4.CollectionUtils;
+import org.apache.commons.lang3.ObjectUtils;
 import org.apache.commons.lang3.StringUtils;
+import org.redisson.api.RBucket;
 import org.redisson.api.RLock;
+import org.redisson.api.RScript;
 import org.redisson.api.RedissonClient;
-import org.springframework.beans.BeanUtils;
+import org.redisson.client.codec.LongCodec;
+import org.redisson.codec.TypedJsonJacksonCodec;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import javax.annotation.Resource;
 import java.util.*;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static com.tu.hb.constant.RedisConstant.TEAM_KEY;
+import static com.tu.hb.constant.RedisConstant.TEAM_MEMBER_LOCK_KEY;
+import static com.tu.hb.constant.RedisConstant.TEAM_TTL_MINUTES;
+import static com.tu.hb.constant.RedisConstant.TEAM_VERSION_KEY;
+import static com.tu.hb.constant.RedisConstant.USER_JOIN_TEAM_LOCK_KEY;
 
 /**
  * @author The tu
@@ -41,15 +59,45 @@ import java.util.concurrent.TimeUnit;
 public class TeamServiceImpl extends ServiceImpl<TeamMapper, Team>
         implements TeamService {
 
+    private static final TypedJsonJacksonCodec TEAM_CODEC = new TypedJsonJacksonCodec(Team.class);
+
+    /**
+     * 回填队伍缓存：版本号与查库前读到的一致时才写入
+     */
+    private static final String FILL_IF_VERSION_MATCH_SCRIPT =
+            "if tonumber(redis.call('get', KEYS[2]) or '0') ~= tonumber(ARGV[1]) then return 0 end "
+                    + "redis.call('set', KEYS[1], ARGV[2], 'px', ARGV[3]) "
+                    + "return 1";
+
+    /**
+     * 清除队伍缓存：版本号自增并删除缓存
+     */
+    private static final String INVALIDATE_SCRIPT =
+            "redis.call('incr', KEYS[2]) "
+                    + "redis.call('expire', KEYS[2], ARGV[1]) "
+                    + "return redis.call('del', KEYS[1])";
+
     @Resource
     private UserService userService;
 
     @Resource
     private UserTeamService userTeamService;
 
+    @Resource
+    private UserTeamMapper userTeamMapper;
+
     @Resource
     private RedissonClient redissonClient;
 
+    @Resource
+    private TeamQuotaManager teamQuotaManager;
+
+    @Resource
+    private UserBatchLoader userBatchLoader;
+
+    @Resource
+    private AvatarThumbnailManager avatarThumbnailManager;
+
     @Override
     @Transactional
     public Long addTeam(Team team, User loginUser) {
@@ -93,19 +141,16 @@ public class TeamServiceImpl extends ServiceImpl<TeamMapper, Team>
         if (team.getExpireTime().before(new Date())) {
             throw new BusinessException(ErrorCode.PARAMS_ERROR, "队伍已过期");
         }
-        //  ● 每个用户最多创建5个队伍
-        // 有 bug，可能同时创建 100 个队伍
+        //  ● 每个用户最多创建5个队伍（Redis 计数器原子预占，事务回滚时归还名额）
         final Long userId = loginUser.getId();
-        QueryWrapper<Team> queryWrapper = new QueryWrapper<>();
-        queryWrapper.eq("userId", userId);
-        long count = this.count(queryWrapper);
-        if (count >= 5) {
+        if (!teamQuotaManager.tryReserve(userId)) {
             throw new BusinessException(ErrorCode.PARAMS_ERROR, "队伍创建已达上限");
         }
         // 4. 插入队伍信息到队伍表
         //先设置为空，让他自增
         team.setId(null);
         team.setUserId(userId);
+        team.setAvatarVariants(StringUtils.isBlank(team.getAvatarUrl()) ? null : avatarThumbnailManager.resolveVariants(team.getAvatarUrl()));
         boolean result = this.save(team);
         Long teamId = team.getId();
         if (!result || teamId == null) {
@@ -120,7 +165,7 @@ public class TeamServiceImpl extends ServiceImpl<TeamMapper, Team>
         if (!result) {
             throw new BusinessException(ErrorCode.SYSTEM_ERROR, "创建队伍失败");
         }
-
+        userTeamService.invalidateJoinTeamAfterCommit(userId);
         return teamId;
     }
 
@@ -179,24 +224,23 @@ public class TeamServiceImpl extends ServiceImpl<TeamMapper, Team>
         if (CollectionUtils.isEmpty(teamList)) {
             return new ArrayList<>();
         }
-        // 关联查询创建人的用户信息
+        // 关联查询创建人的用户信息：先登记全部创建人，第一次取值时合并成一次批量查询（只包含脱敏字段）
         List<TeamUserVO> teamUserVOList = new ArrayList<>();
+        List<Supplier<User>> creatorList = new ArrayList<>();
         for (Team team : teamList) {
             Long userId = team.getUserId();
             // userId不存在，执行下一次循环插入
             if (userId == null) {
                 continue;
             }
-            TeamUserVO teamUserVO = new TeamUserVO();
-            BeanUtils.copyProperties(team, teamUserVO);
-            //脱敏用户信息
-            User user = userService.getById(userId);
+            teamUserVOList.add(TeamConvert.toTeamUserVO(team));
+            creatorList.add(userBatchLoader.load(userId));
+        }
+        for (int i = 0; i < teamUserVOList.size(); i++) {
+            User user = creatorList.get(i).get();
             if (user != null) {
-                UserVO userVO = new UserVO();
-                BeanUtils.copyProperties(user, userVO);
-                teamUserVO.setCreateUser(userVO);
+                teamUserVOList.get(i).setCreateUser(UserConvert.toUserVO(user));
             }
-            teamUserVOList.add(teamUserVO);
         }
         return teamUserVOList;
     }
@@ -252,24 +296,23 @@ public class TeamServiceImpl extends ServiceImpl<TeamMapper, Team>
         if (CollectionUtils.isEmpty(teamList)) {
             return new ArrayList<>();
         }
-        // 关联查询创建人的用户信息
+        // 关联查询创建人的用户信息：先登记全部创建人，第一次取值时合并成一次批量查询（只包含脱敏字段）
         List<TeamUserVO> teamUserVOList = new ArrayList<>();
+        List<Supplier<User>> creatorList = new ArrayList<>();
         for (Team team : teamList) {
             Long userId = team.getUserId();
             // userId不存在，执行下一次循环插入
             if (userId == null) {
                 continue;
             }
-            TeamUserVO teamUserVO = new TeamUserVO();
-            BeanUtils.copyProperties(team, teamUserVO);
-            //脱敏用户信息
-            User user = userService.getById(userId);
+            teamUserVOList.add(TeamConvert.toTeamUserVO(team));
+            creatorList.add(userBatchLoader.load(userId));
+        }
+        for (int i = 0; i < teamUserVOList.size(); i++) {
+            User user = creatorList.get(i).get();
             if (user != null) {
-                UserVO userVO = new UserVO();
-                BeanUtils.copyProperties(user, userVO);
-                teamUserVO.setCreateUser(userVO);
+                teamUserVOList.get(i).setCreateUser(UserConvert.toUserVO(user));
             }
-            teamUserVOList.add(teamUserVO);
         }
         return teamUserVOList;
     }
@@ -286,39 +329,92 @@ public class TeamServiceImpl extends ServiceImpl<TeamMapper, Team>
         if (teamId == null || teamId <= 0) {
             throw new BusinessException(ErrorCode.PARAMS_ERROR);
         }
-        // 3. 管理员和当前登录用户才能修改队伍
+        // 3. 管理员和当前登录用户才能修改队伍（读缓存，只用于权限校验）
         Team oldTeam = this.getTeamById(teamId);
-        if (!userService.isAdmin(loginUser) && !oldTeam.getUserId().equals(loginUser.getId())) {
-            throw new BusinessException(ErrorCode.NO_AUTH);
-        }
-        // 4. 如果用户传入的新值和老值一致，就不用 update 了（可自行实现，降低数据库使用次数）
+        checkUpdateAuth(oldTeam, loginUser);
         Integer status = teamUpdateRequest.getStatus();
         String password = teamUpdateRequest.getPassword();
-        String name = teamUpdateRequest.getName();
-        String description = teamUpdateRequest.getDescription();
-        Date expireTime = teamUpdateRequest.getExpireTime();
-        String avatarUrl = teamUpdateRequest.getAvatarUrl();
-        if (oldTeam.getName().equals(name) && oldTeam.getDescription().equals(description) && oldTeam.getStatus().equals(status) && oldTeam.getExpireTime().equals(expireTime) && oldTeam.getAvatarUrl().equals(avatarUrl)) {
-            return true;
-        }
-        // 5. 修改队伍状态为加密时，需要设置密码
+        // 4. 修改队伍状态为加密时，需要设置密码（原本就是加密队伍且已有密码时可不传）
         TeamStatusEnum statusEnum = TeamStatusEnum.getEnumByValue(status);
-        if (TeamStatusEnum.SECRET.equals(statusEnum)) {
-            if (StringUtils.isBlank(password)) {
+        if (TeamStatusEnum.SECRET.equals(statusEnum) && StringUtils.isBlank(password)) {
+            boolean hasPassword = TeamStatusEnum.SECRET.getValue().equals(oldTeam.getStatus())
+                    && StringUtils.isNotBlank(oldTeam.getPassword());
+            if (!hasPassword) {
                 throw new BusinessException(ErrorCode.PARAMS_ERROR, "加密房间时需要设置密码");
             }
+            password = null;
         }
         //    修改队伍状态为公开时，清空密码
         if (TeamStatusEnum.PUBLIC.equals(statusEnum)) {
-            teamUpdateRequest.setPassword("");
+            password = "";
+        }
+        // 5. 只收集和老值不一致的字段，全部一致时不更新、也不清除缓存
+        Integer expectVersion = teamUpdateRequest.getVersion();
+        if (expectVersion != null && !expectVersion.equals(oldTeam.getVersion())) {
+            // 客户端版本和缓存不一致，以数据库为准比较
+            evictTeamCache(teamId);
+            oldTeam = this.getTeamById(teamId);
+        }
+        Team updateTeam = buildUpdateTeam(teamUpdateRequest, status, password, oldTeam);
+        if (updateTeam == null) {
+            return true;
+        }
+        // 6. 带版本号条件更新（update team set 变更字段 ... where id = ? and version = ?），客户端未传版本号时使用读到的版本
+        updateTeam.setVersion(expectVersion != null ? expectVersion : oldTeam.getVersion());
+        if (this.updateById(updateTeam)) {
+            evictTeamCache(teamId);
+            return true;
+        }
+        evictTeamCache(teamId);
+        if (expectVersion != null) {
+            throw new BusinessException(ErrorCode.OPERATION_CONFLICT, "队伍信息已被他人修改，请刷新后重试");
         }
+        // 7. 客户端未指定版本时，冲突可能来自过期的缓存，读取最新数据重新比较后重试一次
+        Team latestTeam = this.getById(teamId);
+        if (latestTeam == null) {
+            throw new BusinessException(ErrorCode.NULL_ERROR, "队伍不存在");
+        }
+        checkUpdateAuth(latestTeam, loginUser);
+        updateTeam = buildUpdateTeam(teamUpdateRequest, status, password, latestTeam);
+        if (updateTeam == null) {
+            return true;
+        }
+        updateTeam.setVersion(latestTeam.getVersion());
+        if (!this.updateById(updateTeam)) {
+            throw new BusinessException(ErrorCode.OPERATION_CONFLICT, "队伍信息已被他人修改，请刷新后重试");
+        }
+        evictTeamCache(teamId);
+        return true;
+    }
+
+    /**
+     * 对比请求和当前队伍信息，只把变化的字段放入待更新对象
+     * @param teamUpdateRequest
+     * @param status
+     * @param password 处理后的密码（为空表示不修改）
+     * @param oldTeam
+     * @return 待更新对象，没有变化时返回 null
+     */
+    private Team buildUpdateTeam(TeamUpdateRequest teamUpdateRequest, Integer status, String password, Team oldTeam) {
         Team updateTeam = new Team();
-        BeanUtils.copyProperties(teamUpdateRequest, updateTeam);
-        // 6. 更新成功
-        return this.updateById(updateTeam);
+        boolean changed = DirtyFieldUtils.setIfChanged(teamUpdateRequest.getName(), oldTeam.getName(), updateTeam::setName);
+        changed |= DirtyFieldUtils.setIfChanged(teamUpdateRequest.getDescription(), oldTeam.getDescription(), updateTeam::setDescription);
+        if (DirtyFieldUtils.setIfChanged(teamUpdateRequest.getAvatarUrl(), oldTeam.getAvatarUrl(), updateTeam::setAvatarUrl)) {
+            updateTeam.setAvatarVariants(avatarThumbnailManager.resolveVariants(updateTeam.getAvatarUrl()));
+            changed = true;
+        }
+        changed |= DirtyFieldUtils.setIfChanged(teamUpdateRequest.getExpireTime(), oldTeam.getExpireTime(), updateTeam::setExpireTime);
+        changed |= DirtyFieldUtils.setIfChanged(status, oldTeam.getStatus(), updateTeam::setStatus);
+        changed |= DirtyFieldUtils.setIfChanged(password, StringUtils.defaultString(oldTeam.getPassword()), updateTeam::setPassword);
+        if (!changed) {
+            return null;
+        }
+        updateTeam.setId(oldTeam.getId());
+        return updateTeam;
     }
 
     @Override
+    @Transactional
     public boolean joinTeam(TeamJoinRequest teamJoinRequest, User loginUser) {
         // 1. 队伍未满,未过期且队伍存在时可加入
         if (teamJoinRequest == null ) {
@@ -342,53 +438,56 @@ public class TeamServiceImpl extends ServiceImpl<TeamMapper, Team>
                 throw new BusinessException(ErrorCode.PARAMS_ERROR, "密码不正确");
             }
         }
-        RLock lock = redissonClient.getLock("hb:joinTeam");
-        while (true) {
-            try {
-                if (lock.tryLock(0, -1, TimeUnit.MILLISECONDS)) {
-                    System.out.println("getLock: " + Thread.currentThread().getId());
-                    //队伍已满
-                    QueryWrapper<UserTeam> queryWrapper = new QueryWrapper<>();
-                    queryWrapper.eq("teamId", teamId);
-                    long count = userTeamService.count(queryWrapper);
-                    if (count >= team.getMaxNum()) {
-                        throw new BusinessException(ErrorCode.PARAMS_ERROR, "队伍已满");
-                    }
-                    // 4. 用户最多只能加入5个队伍
-                    Long userId = loginUser.getId();
-                    queryWrapper = new QueryWrapper<>();
-                    queryWrapper.eq("userId",userId);
-                    long hasJoinNum = userTeamService.count(queryWrapper);
-                    if (hasJoinNum >= 5) {
-                        throw new BusinessException(ErrorCode.PARAMS_ERROR, "用户创建和加入队伍已达上线");
-                    }
-                    // 5. 已加入的队伍不能重复加入
-                    queryWrapper = new QueryWrapper<>();
-                    queryWrapper.eq("teamId", teamId);
-                    queryWrapper.eq("userId", userId);
-                    long hasUserJoinTeam = userTeamService.count(queryWrapper);
-                    if (hasUserJoinTeam > 0) {
-                        throw new BusinessException(ErrorCode.PARAMS_ERROR, "已加入队伍");
-                    }
-                    // 6. 将数据加入到用户队伍关系表
-                    UserTeam userTeam = new UserTeam();
-                    userTeam.setTeamId(teamId);
-                    userTeam.setUserId(userId);
-                    userTeam.setJoinTime(new Date());
-                    return userTeamService.save(userTeam);
-                }
-            } catch (InterruptedException e) {
-                log.error("doJoin error", e);
-                return false;
-            } finally {
-                // 只能释放自己的锁
-                if (lock.isHeldByCurrentThread()) {
-                    System.out.println("unLock: " + Thread.currentThread().getId());
-                    lock.unlock();
-                }
+        // 与退出队伍共用队伍成员锁，人数判断和加入串行执行；同时持有用户锁，同一用户并发加入多个队伍时不会超过上限
+        // 锁持有到事务结束，释放时新成员已提交，其他请求能看到
+        Long userId = loginUser.getId();
+        RLock lock = redissonClient.getMultiLock(redissonClient.getLock(String.format(TEAM_MEMBER_LOCK_KEY, teamId)),
+                redissonClient.getLock(String.format(USER_JOIN_TEAM_LOCK_KEY, userId)));
+        try {
+            if (!lock.tryLock(3, -1, TimeUnit.SECONDS)) {
+                throw new BusinessException(ErrorCode.SYSTEM_ERROR, "操作频繁，请稍后重试");
             }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BusinessException(ErrorCode.SYSTEM_ERROR, "加入队伍失败");
         }
-
+        TransactionUtils.afterCompletion(lock::unlock);
+        // 队伍缓存可能还没失效，在锁内从数据库确认队伍没有被解散
+        if (this.getById(teamId) == null) {
+            throw new BusinessException(ErrorCode.NULL_ERROR, "队伍不存在");
+        }
+        //队伍已满
+        QueryWrapper<UserTeam> queryWrapper = new QueryWrapper<>();
+        queryWrapper.eq("teamId", teamId);
+        long count = userTeamService.count(queryWrapper);
+        if (count >= team.getMaxNum()) {
+            throw new BusinessException(ErrorCode.PARAMS_ERROR, "队伍已满");
+        }
+        // 4. 用户最多只能加入5个队伍
+        queryWrapper = new QueryWrapper<>();
+        queryWrapper.eq("userId",userId);
+        long hasJoinNum = userTeamService.count(queryWrapper);
+        if (hasJoinNum >= 5) {
+            throw new BusinessException(ErrorCode.PARAMS_ERROR, "用户创建和加入队伍已达上线");
+        }
+        // 5. 已加入的队伍不能重复加入
+        queryWrapper = new QueryWrapper<>();
+        queryWrapper.eq("teamId", teamId);
+        queryWrapper.eq("userId", userId);
+        long hasUserJoinTeam = userTeamService.count(queryWrapper);
+        if (hasUserJoinTeam > 0) {
+            throw new BusinessException(ErrorCode.PARAMS_ERROR, "已加入队伍");
+        }
+        // 6. 将数据加入到用户队伍关系表
+        UserTeam userTeam = new UserTeam();
+        userTeam.setTeamId(teamId);
+        userTeam.setUserId(userId);
+        userTeam.setJoinTime(new Date());
+        boolean result = userTeamService.save(userTeam);
+        if (result) {
+            userTeamService.invalidateJoinTeamAfterCommit(userId);
+        }
+        return result;
     }
 
     @Override
@@ -400,51 +499,45 @@ public class TeamServiceImpl extends ServiceImpl<TeamMapper, Team>
         }
         // 2. 队伍是否存在
         final Long teamId = teamQuitRequest.getTeamId();
-        Team team = this.getTeamById(teamId);
-        // 3. 校验我是否已经加入队伍
+        if (teamId == null || teamId <= 0) {
+            throw new BusinessException(ErrorCode.PARAMS_ERROR);
+        }
         Long userId = loginUser.getId();
-        QueryWrapper<UserTeam> queryWrapper = new QueryWrapper<>();
-        queryWrapper.eq("teamId", teamId);
-        queryWrapper.eq("userId", userId);
-        long count = userTeamService.count(queryWrapper);
-        if (count <= 0) {
+        // 同一队伍的成员变更串行执行，锁持有到事务结束，避免并发退出时都认为还有其他成员而丢失队长
+        RLock lock = redissonClient.getLock(String.format(TEAM_MEMBER_LOCK_KEY, teamId));
+        try {
+            if (!lock.tryLock(3, -1, TimeUnit.SECONDS)) {
+                throw new BusinessException(ErrorCode.SYSTEM_ERROR, "操作频繁，请稍后重试");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BusinessException(ErrorCode.SYSTEM_ERROR, "退出队伍失败");
+        }
+        TransactionUtils.afterCompletion(lock::unlock);
+        // 队长可能刚被转交，缓存中的队伍信息不可靠，在锁内从数据库读取
+        Team team = this.getById(teamId);
+        if (team == null) {
+            throw new BusinessException(ErrorCode.NULL_ERROR, "队伍不存在");
+        }
+        // 3. 退出队伍，影响行数为 0 说明我没有加入该队伍
+        if (userTeamMapper.quitTeam(teamId, userId) <= 0) {
             throw new BusinessException(ErrorCode.NULL_ERROR, "用户不在此队伍中");
         }
-        // 4. 退出队伍
-        //  a. 只剩一人退出，队伍自动解散
-        queryWrapper = new QueryWrapper<>();
-        queryWrapper.eq("teamId", teamId);
-        long hasTeamNumUser = userTeamService.count(queryWrapper);
-        if (hasTeamNumUser == 1) {
-            this.removeById(teamId);
-        } else {
-            //  b. 队伍不只一人，队长退出（队长自动转交给最早入队人员）
-            if (team.getUserId().equals(userId)) {
-                QueryWrapper<UserTeam> userTeamQueryWrapper = new QueryWrapper<>();
-                //关系表中id自增 id越大 进入队伍越晚
-                userTeamQueryWrapper.eq("teamId", teamId);
-                userTeamQueryWrapper.orderByAsc("id");
-                userTeamQueryWrapper.last("limit 2");
-                List<UserTeam> userTeamList = userTeamService.list(userTeamQueryWrapper);
-                if (CollectionUtils.isEmpty(userTeamList) || userTeamList.size() <= 0) {
-                    throw new BusinessException(ErrorCode.SYSTEM_ERROR);
-                }
-                UserTeam nextTeamUser = userTeamList.get(1);
-                Long nextUserId = nextTeamUser.getUserId();
-                //更新后的队长
-                Team updateTeam = new Team();
-                updateTeam.setId(teamId);
-                updateTeam.setUserId(nextUserId);
-                boolean result = this.updateById(updateTeam);
-                if (!result) {
-                    throw new BusinessException(ErrorCode.SYSTEM_ERROR, "更新队伍队长失败");
-                }
-
+        // 4. 处理队伍
+        //  a. 没有剩余成员，队伍自动解散
+        //  b. 队长退出，队长自动转交给最早入队人员
+        this.baseMapper.transferCaptainOrDissolve(teamId, userId);
+        userTeamService.invalidateJoinTeamAfterCommit(userId);
+        TransactionUtils.afterCommit(() -> evictTeamCache(teamId));
+        if (team.getUserId().equals(userId)) {
+            teamQuotaManager.releaseAfterCommit(userId);
+            // 队伍未解散时新队长占用一个创建名额
+            Team newTeam = this.getById(teamId);
+            if (newTeam != null) {
+                teamQuotaManager.increaseAfterCommit(newTeam.getUserId());
             }
         }
-        // 5. 清除关系表数据
-        queryWrapper.eq("userId", userId);
-        return userTeamService.remove(queryWrapper);
+        return true;
     }
 
     @Override
@@ -463,18 +556,27 @@ public class TeamServiceImpl extends ServiceImpl<TeamMapper, Team>
         // 3. 删除队伍的关系表
         QueryWrapper<UserTeam> queryWrapper = new QueryWrapper<>();
         queryWrapper.eq("teamId", teamId);
+        // 先取出队伍成员，用于清除成员的已加入队伍缓存
+        List<UserTeam> memberList = userTeamService.list(queryWrapper);
         boolean result = userTeamService.remove(queryWrapper);
         if (!result) {
             throw new BusinessException(ErrorCode.SYSTEM_ERROR, "删除队伍关联信息失败");
         }
+        memberList.forEach(member -> userTeamService.invalidateJoinTeamAfterCommit(member.getUserId()));
         // 4. 直接删除队伍
-        return this.removeById(teamId);
+        result = this.removeById(teamId);
+        if (result) {
+            teamQuotaManager.releaseAfterCommit(team.getUserId());
+            TransactionUtils.afterCommit(() -> evictTeamCache(teamId));
+        }
+        return result;
     }
 
 
 
     /**
-     * 根据id获取队伍信息
+     * 根据id获取队伍信息（优先读缓存）
+     * 查库前记下缓存版本号，回填时版本号不变才写入：查库期间队伍被修改（缓存已清除、版本号自增）时不回填旧数据
      * @param teamId
      * @return
      */
@@ -482,12 +584,66 @@ public class TeamServiceImpl extends ServiceImpl<TeamMapper, Team>
         if (teamId == null || teamId <= 0) {
             throw new BusinessException(ErrorCode.PARAMS_ERROR);
         }
+        String redisKey = String.format(TEAM_KEY, teamId);
+        String versionKey = String.format(TEAM_VERSION_KEY, teamId);
+        Long version = null;
+        try {
+            Team cachedTeam = redissonClient.<Team>getBucket(redisKey, TEAM_CODEC).get();
+            if (cachedTeam != null) {
+                return cachedTeam;
+            }
+            RBucket<Long> versionBucket = redissonClient.getBucket(versionKey, LongCodec.INSTANCE);
+            version = ObjectUtils.defaultIfNull(versionBucket.get(), 0L);
+        } catch (Exception e) {
+            log.error("redis get team error", e);
+        }
         Team team = this.getById(teamId);
         if (team == null) {
             throw new BusinessException(ErrorCode.NULL_ERROR, "队伍不存在");
         }
+        if (version == null) {
+            return team;
+        }
+        try {
+            redissonClient.getScript(TEAM_CODEC).eval(RScript.Mode.READ_WRITE, FILL_IF_VERSION_MATCH_SCRIPT,
+                    RScript.ReturnType.INTEGER, Arrays.asList(redisKey, versionKey),
+                    version, team, TimeUnit.MINUTES.toMillis(TEAM_TTL_MINUTES));
+        } catch (Exception e) {
+            log.error("redis set team error", e);
+        }
         return team;
     }
+
+    /**
+     * 删除队伍信息缓存，同时自增版本号，使进行中的回填失效
+     * @param teamId
+     */
+    private void evictTeamCache(Long teamId) {
+        String redisKey = String.format(TEAM_KEY, teamId);
+        try {
+            redissonClient.getScript(LongCodec.INSTANCE).eval(RScript.Mode.READ_WRITE, INVALIDATE_SCRIPT,
+                    RScript.ReturnType.INTEGER, Arrays.asList(redisKey, String.format(TEAM_VERSION_KEY, teamId)),
+                    TimeUnit.MINUTES.toSeconds(TEAM_TTL_MINUTES));
+        } catch (Exception e) {
+            log.error("redis invalidate team error", e);
+            try {
+                redissonClient.getKeys().delete(redisKey);
+            } catch (Exception ex) {
+                log.error("redis delete team error", ex);
+            }
+        }
+    }
+
+    /**
+     * 校验修改队伍的权限：管理员或队长
+     * @param team
+     * @param loginUser
+     */
+    private void checkUpdateAuth(Team team, User loginUser) {
+        if (!userService.isAdmin(loginUser) && !team.getUserId().equals(loginUser.getId())) {
+            throw new BusinessException(ErrorCode.NO_AUTH);
+        }
+    }
 }
 
 
@@ -1,19 +1,37 @@
 package com.tu.hb.service.impl;
 
 import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.baomidou.mybatisplus.core.conditions.update.UpdateWrapper;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
 import com.google.gson.Gson;
 import com.google.gson.reflect.TypeToken;
 import com.tu.hb.exception.BusinessException;
 import com.tu.hb.common.ErrorCode;
+import com.tu.hb.config.AuthConfig;
+import com.tu.hb.event.UserTagsChangeEvent;
+import com.tu.hb.manage.AuthTokenManager;
+import com.tu.hb.manage.AvatarThumbnailManager;
+import com.tu.hb.manage.UserAccountBloomFilter;
+import com.tu.hb.manage.UserBatchLoader;
+import com.tu.hb.manage.UserProfileCache;
+import com.tu.hb.mapper.SafeUserColumns;
+import com.tu.hb.mapper.UserCardColumns;
 import com.tu.hb.mapper.UserMapper;
+import com.tu.hb.model.convert.UserConvert;
 import com.tu.hb.model.domain.User;
+import com.tu.hb.model.request.UserSearchRequest;
+import com.tu.hb.model.request.UserTagsDeltaRequest;
 import com.tu.hb.model.request.UserTagsUpdateRequest;
+import com.tu.hb.model.vo.CursorPageVO;
 import com.tu.hb.service.UserService;
 import com.tu.hb.utils.AlgorithmUtils;
-import javafx.util.Pair;
+import com.tu.hb.utils.DirtyFieldUtils;
+import com.tu.hb.utils.TransactionUtils;
+import org.apache.commons.lang3.tuple.Pair;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.util.CollectionUtils;
@@ -21,12 +39,21 @@ import org.springframework.util.DigestUtils;
 
 import javax.annotation.Resource;
 import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpSession;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
+import java.util.function.Function;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
 import static com.tu.hb.constant.UserConstant.ADMIN_ROLE;
+import static com.tu.hb.constant.UserConstant.AUTH_HEADER;
+import static com.tu.hb.constant.UserConstant.AUTH_TOKEN_PREFIX;
+import static com.tu.hb.constant.UserConstant.SEARCH_DEFAULT_PAGE_SIZE;
+import static com.tu.hb.constant.UserConstant.SEARCH_MATCH_CONTAINS;
+import static com.tu.hb.constant.UserConstant.SEARCH_MATCH_PREFIX;
+import static com.tu.hb.constant.UserConstant.SEARCH_MAX_PAGE_SIZE;
 import static com.tu.hb.constant.UserConstant.USER_LOGIN_STATE;
 
 /**
@@ -47,6 +74,37 @@ public class UserServiceImpl extends ServiceImpl<UserMapper, User>
      */
     private static final String SALT = "yupi";
 
+    /**
+     * 最多设置的标签数
+     */
+    private static final int MAX_TAG_NUM = 12;
+
+    /**
+     * 修改标签版本冲突时的最大重试次数
+     */
+    private static final int MAX_TAG_UPDATE_RETRY = 3;
+
+    @Resource
+    private ApplicationEventPublisher applicationEventPublisher;
+
+    @Resource
+    private AuthConfig authConfig;
+
+    @Resource
+    private AuthTokenManager authTokenManager;
+
+    @Resource
+    private UserProfileCache userProfileCache;
+
+    @Resource
+    private UserBatchLoader userBatchLoader;
+
+    @Resource
+    private UserAccountBloomFilter userAccountBloomFilter;
+
+    @Resource
+    private AvatarThumbnailManager avatarThumbnailManager;
+
 
     @Override
     public long userRegister(String username,String userAccount, String userPassword, String checkPassword) {
@@ -73,25 +131,33 @@ public class UserServiceImpl extends ServiceImpl<UserMapper, User>
         if (!userPassword.equals(checkPassword)) {
             throw new BusinessException(ErrorCode.PARAMS_ERROR, "两次输入密码不一致");
         }
-        // 账号不能重复
-        QueryWrapper<User> queryWrapper = new QueryWrapper<>();
-        queryWrapper.eq("userAccount", userAccount);
-        long count = this.count(queryWrapper);
-        if (count > 0) {
-            throw new BusinessException(ErrorCode.PARAMS_ERROR, "账号重复");
+        // 账号不能重复：布隆过滤器判断一定不存在时跳过查库，并发注册时由唯一索引兜底
+        if (userAccountBloomFilter.mightContain(userAccount)) {
+            QueryWrapper<User> queryWrapper = new QueryWrapper<>();
+            queryWrapper.eq("userAccount", userAccount);
+            long count = this.count(queryWrapper);
+            if (count > 0) {
+                throw new BusinessException(ErrorCode.PARAMS_ERROR, "账号重复");
+            }
         }
         //加密
-        String dealPassword = DigestUtils.md5DigestAsHex((SALT + userPassword).getBytes());
+        String dealPassword = getEncryptPassword(userPassword);
 
         User user = new User();
         user.setUsername(username);
         user.setUserAccount(userAccount);
         user.setUserPassword(dealPassword);
         user.setTags("[]");
-        boolean result = this.save(user);
+        boolean result;
+        try {
+            result = this.save(user);
+        } catch (DuplicateKeyException e) {
+            throw new BusinessException(ErrorCode.PARAMS_ERROR, "账号重复");
+        }
         if (!result) {
             throw new BusinessException(ErrorCode.SYSTEM_ERROR, "注册失败");
         }
+        userAccountBloomFilter.addAfterCommit(userAccount);
         return user.getId();
     }
 
@@ -114,9 +180,11 @@ public class UserServiceImpl extends ServiceImpl<UserMapper, User>
             throw new BusinessException(ErrorCode.PARAMS_ERROR, "账号包含特殊字符");
         }
         // 加密
-        String dealPassword = DigestUtils.md5DigestAsHex((SALT + userPassword).getBytes());
+        String dealPassword = getEncryptPassword(userPassword);
         // 查询用户是否存在
         QueryWrapper<User> queryWrapper = new QueryWrapper<>();
+        // 密码只作为查询条件，不查询出来
+        queryWrapper.select(SafeUserColumns.COLUMNS);
         queryWrapper.eq("userAccount", userAccount);
         queryWrapper.eq("userPassword", dealPassword);
         User user = this.getOne(queryWrapper);
@@ -127,8 +195,13 @@ public class UserServiceImpl extends ServiceImpl<UserMapper, User>
         }
         // 信息脱敏
         User safetyUser = setSafetyUser(user);
-        // 记录用户登录态
-        request.getSession().setAttribute(USER_LOGIN_STATE, safetyUser);
+        // 记录用户登录态（令牌模式下由调用方签发令牌，不写会话），会话只保存 id 和角色，完整信息按需从缓存读取
+        if (!authConfig.isTokenMode()) {
+            User sessionUser = new User();
+            sessionUser.setId(safetyUser.getId());
+            sessionUser.setUserRole(safetyUser.getUserRole());
+            request.getSession().setAttribute(USER_LOGIN_STATE, sessionUser);
+        }
         return safetyUser;
     }
 
@@ -137,24 +210,24 @@ public class UserServiceImpl extends ServiceImpl<UserMapper, User>
         if (originUser == null) {
             throw new BusinessException(ErrorCode.PARAMS_ERROR, "参数为空");
         }
-        User safetyUser = new User();
-        safetyUser.setId(originUser.getId());
-        safetyUser.setUsername(originUser.getUsername());
-        safetyUser.setUserAccount(originUser.getUserAccount());
-        safetyUser.setAvatarUrl(originUser.getAvatarUrl());
-        safetyUser.setGender(originUser.getGender());
-        safetyUser.setPhone(originUser.getPhone());
-        safetyUser.setEmail(originUser.getEmail());
-        safetyUser.setUserRole(originUser.getUserRole());
-        safetyUser.setUserStatus(originUser.getUserStatus());
-        safetyUser.setCreateTime(originUser.getCreateTime());
-        safetyUser.setTags(originUser.getTags());
-        safetyUser.setProfile(originUser.getProfile());
-        return safetyUser;
+        return UserConvert.toSafeUser(originUser);
+    }
+
+    @Override
+    public String getEncryptPassword(String userPassword) {
+        return DigestUtils.md5DigestAsHex((SALT + userPassword).getBytes());
     }
 
     @Override
     public int userLogout(HttpServletRequest request) {
+        if (authConfig.isTokenMode()) {
+            // 吊销该用户已签发的令牌
+            User loginUser = getLoginUserOrNull(request);
+            if (loginUser != null) {
+                authTokenManager.revoke(loginUser.getId());
+            }
+            return 1;
+        }
         request.getSession().removeAttribute(USER_LOGIN_STATE);
         return 1;
     }
@@ -180,7 +253,8 @@ public class UserServiceImpl extends ServiceImpl<UserMapper, User>
             }
         }
         return true;*/
-        // 1.查询全部用户
+        // 1.查询全部用户（只查询卡片字段）
+        queryWrapper.select(UserCardColumns.COLUMNS);
         List<User> userList = userMapper.selectList(queryWrapper);
         Gson gson = new Gson() ;
         // 2.在内存中判断是否包含要求的标签
@@ -222,11 +296,87 @@ public class UserServiceImpl extends ServiceImpl<UserMapper, User>
         if (!isAdmin(loginUser) && loginUser.getId() != userId) {
             throw new BusinessException(ErrorCode.NO_AUTH);
         }
-        User oldUser = userMapper.selectById(userId);
+        // 从用户信息缓存读取比较基准（含版本号），不直接查库
+        User oldUser = userProfileCache.get(userId);
         if (oldUser == null) {
             throw new BusinessException(ErrorCode.NULL_ERROR);
         }
-        return userMapper.updateById(user);
+        Integer expectVersion = user.getVersion();
+        if (expectVersion != null && !expectVersion.equals(oldUser.getVersion())) {
+            // 客户端版本和缓存不一致，以数据库为准比较
+            oldUser = loadUserForUpdate(userId);
+        }
+        // 只收集和老值不一致的字段，全部一致时不更新
+        User updateUser = buildUpdateUser(user, oldUser, isAdmin(loginUser));
+        if (updateUser == null) {
+            // 没有变化视为修改成功
+            return 1;
+        }
+        // 带版本号条件更新（update user set 变更字段 ... where id = ? and version = ?），客户端未传版本号时使用读到的版本
+        updateUser.setVersion(expectVersion != null ? expectVersion : oldUser.getVersion());
+        int result = userMapper.updateById(updateUser);
+        if (result <= 0 && expectVersion == null) {
+            // 客户端未指定版本时，冲突可能来自过期的缓存，读取最新数据重新比较后重试一次
+            User latestUser = loadUserForUpdate(userId);
+            updateUser = buildUpdateUser(user, latestUser, isAdmin(loginUser));
+            if (updateUser == null) {
+                userProfileCache.invalidateAfterCommit(userId);
+                return 1;
+            }
+            updateUser.setVersion(latestUser.getVersion());
+            result = userMapper.updateById(updateUser);
+        }
+        if (result <= 0) {
+            throw new BusinessException(ErrorCode.OPERATION_CONFLICT, "用户信息已被修改，请刷新后重试");
+        }
+        userProfileCache.invalidateAfterCommit(userId);
+        userBatchLoader.forget(userId);
+        // 令牌中带有角色，状态或角色变化后吊销旧令牌，要求重新登录
+        if (authConfig.isTokenMode() && (updateUser.getUserStatus() != null || updateUser.getUserRole() != null)) {
+            TransactionUtils.afterCommit(() -> authTokenManager.revoke(userId));
+        }
+        return result;
+    }
+
+    /**
+     * 缓存版本过期时从数据库读取最新数据
+     */
+    private User loadUserForUpdate(long userId) {
+        User latestUser = userMapper.selectById(userId);
+        if (latestUser == null) {
+            throw new BusinessException(ErrorCode.NULL_ERROR);
+        }
+        return latestUser;
+    }
+
+    /**
+     * 对比请求和当前用户信息，只把可修改且发生变化的字段放入待更新对象
+     * @param user 请求中的用户信息
+     * @param oldUser 当前用户信息
+     * @param isAdmin 管理员还可以修改用户状态和角色
+     * @return 待更新对象，没有变化时返回 null
+     */
+    private User buildUpdateUser(User user, User oldUser, boolean isAdmin) {
+        User updateUser = new User();
+        boolean changed = DirtyFieldUtils.setIfChanged(user.getUsername(), oldUser.getUsername(), updateUser::setUsername);
+        if (DirtyFieldUtils.setIfChanged(user.getAvatarUrl(), oldUser.getAvatarUrl(), updateUser::setAvatarUrl)) {
+            // 更换头像时带上已生成的缩略图（还没有时清空，生成后异步写回）
+            updateUser.setAvatarVariants(avatarThumbnailManager.resolveVariants(updateUser.getAvatarUrl()));
+            changed = true;
+        }
+        changed |= DirtyFieldUtils.setIfChanged(user.getGender(), oldUser.getGender(), updateUser::setGender);
+        changed |= DirtyFieldUtils.setIfChanged(user.getPhone(), oldUser.getPhone(), updateUser::setPhone);
+        changed |= DirtyFieldUtils.setIfChanged(user.getEmail(), oldUser.getEmail(), updateUser::setEmail);
+        changed |= DirtyFieldUtils.setIfChanged(user.getProfile(), oldUser.getProfile(), updateUser::setProfile);
+        if (isAdmin) {
+            changed |= DirtyFieldUtils.setIfChanged(user.getUserStatus(), oldUser.getUserStatus(), updateUser::setUserStatus);
+            changed |= DirtyFieldUtils.setIfChanged(user.getUserRole(), oldUser.getUserRole(), updateUser::setUserRole);
+        }
+        if (!changed) {
+            return null;
+        }
+        updateUser.setId(oldUser.getId());
+        return updateUser;
     }
 
     @Override
@@ -234,20 +384,44 @@ public class UserServiceImpl extends ServiceImpl<UserMapper, User>
         if (request == null) {
             return null;
         }
-        Object userObj = request.getSession().getAttribute(USER_LOGIN_STATE);
-        if (userObj == null) {
+        User loginUser = getLoginUserOrNull(request);
+        if (loginUser == null) {
             throw new BusinessException(ErrorCode.NOT_LOGIN);
         }
-        return (User) userObj;
+        return loginUser;
+    }
+
+    @Override
+    public User getLoginUserOrNull(HttpServletRequest request) {
+        if (authConfig.isTokenMode()) {
+            String authorization = request.getHeader(AUTH_HEADER);
+            if (StringUtils.startsWith(authorization, AUTH_TOKEN_PREFIX)) {
+                return authTokenManager.parseToken(authorization.substring(AUTH_TOKEN_PREFIX.length()));
+            }
+            return null;
+        }
+        // 不主动创建 session
+        HttpSession session = request.getSession(false);
+        if (session == null) {
+            return null;
+        }
+        return (User) session.getAttribute(USER_LOGIN_STATE);
+    }
+
+    @Override
+    public User getUserProfile(long userId) {
+        User user = userProfileCache.get(userId);
+        // 返回副本，避免调用方修改缓存中的对象
+        return user == null ? null : setSafetyUser(user);
     }
 
     @Override
     public Boolean isAdmin(HttpServletRequest request) {
-        Object userObj = request.getSession().getAttribute(USER_LOGIN_STATE);
-        User user = (User) userObj;
+        User user = getLoginUserOrNull(request);
         return user != null && user.getUserRole() == ADMIN_ROLE;
     }
 
+
     @Override
     public Boolean isAdmin(User loginUser) {
         return loginUser != null && loginUser.getUserRole() == ADMIN_ROLE;
@@ -260,6 +434,14 @@ public class UserServiceImpl extends ServiceImpl<UserMapper, User>
         queryWrapper.isNotNull("tags");
         List<User> userList = this.list(queryWrapper);
         String tags = loginUser.getTags();
+        if (tags == null) {
+            // 登录态只携带 id 和角色
+            User user = getUserProfile(loginUser.getId());
+            if (user == null) {
+                throw new BusinessException(ErrorCode.NOT_LOGIN);
+            }
+            tags = user.getTags();
+        }
         Gson gson = new Gson();
         List<String> tagList = gson.fromJson(tags, new TypeToken<List<String>>() {
         }.getType());
@@ -274,7 +456,7 @@ public class UserServiceImpl extends ServiceImpl<UserMapper, User>
             }.getType());
             // 计算分数
             long distance = AlgorithmUtils.minDistance(tagList, userTagList);
-            list.add(new Pair<>(user, distance));
+            list.add(Pair.of(user, distance));
         }
         // 按编辑距离从小到大排序
         List<Pair<User, Long>> topUserList = list.stream()
@@ -285,21 +467,8 @@ public class UserServiceImpl extends ServiceImpl<UserMapper, User>
         List<Long> userIdList = topUserList.stream()
                 .map(pair -> pair.getKey().getId())
                 .collect(Collectors.toList());
-        // in不会按照指定的顺序去查询，要存入map里面去映射一下
-        QueryWrapper<User> userQueryWrapper = new QueryWrapper<>();
-        userQueryWrapper.in("id", userIdList);
-        // 1, 3, 2
-        // User1、User2、User3
-        // 1 => User1, 2 => User2, 3 => User3
-        Map<Long, List<User>> userIdUserListMap = this.list(userQueryWrapper).stream()
-                .map(this::setSafetyUser)
-                .collect(Collectors.groupingBy(User::getId));
-        //对排好顺序的列表进行遍历，并从map中取出对象存入最终的列表
-        List<User> finalUserList = new ArrayList<>();
-        for (Long userId : userIdList) {
-            finalUserList.add(userIdUserListMap.get(userId).get(0));
-        }
-        return finalUserList;
+        // 批量加载脱敏后的用户信息，按相似度顺序返回
+        return userBatchLoader.loadMany(userIdList);
     }
 
     @Override
@@ -312,24 +481,191 @@ public class UserServiceImpl extends ServiceImpl<UserMapper, User>
             throw new BusinessException(ErrorCode.PARAMS_ERROR, "该用户不存在");
         }
         List<String> newTagList = tagsUpdateRequest.getTagList();
-        if (newTagList.size() > 12) {
+        if (newTagList == null) {
+            throw new BusinessException(ErrorCode.PARAMS_ERROR);
+        }
+        if (newTagList.size() > MAX_TAG_NUM) {
             throw new BusinessException(ErrorCode.PARAMS_ERROR, "最多设置12个标签");
         }
         if (!isAdmin(loginUser) && userId != loginUser.getId()) {
             throw new BusinessException(ErrorCode.NO_AUTH, "无权限");
         }
-        User user = userMapper.selectById(userId);
-        String tags = user.getTags();
+        // 整体替换
+        return changeTags(userId, oldTagList -> new ArrayList<>(new LinkedHashSet<>(newTagList)));
+    }
+
+    @Override
+    public boolean updateTagsDelta(UserTagsDeltaRequest tagsDeltaRequest, User loginUser) {
+        if (tagsDeltaRequest == null || tagsDeltaRequest.getId() == null) {
+            throw new BusinessException(ErrorCode.PARAMS_ERROR);
+        }
+        long userId = tagsDeltaRequest.getId();
+        if (userId <= 0) {
+            throw new BusinessException(ErrorCode.PARAMS_ERROR, "该用户不存在");
+        }
+        List<String> addList = Optional.ofNullable(tagsDeltaRequest.getAdd()).orElse(Collections.emptyList());
+        List<String> removeList = Optional.ofNullable(tagsDeltaRequest.getRemove()).orElse(Collections.emptyList());
+        if (addList.stream().anyMatch(StringUtils::isBlank)) {
+            throw new BusinessException(ErrorCode.PARAMS_ERROR, "标签不能为空");
+        }
+        if (!isAdmin(loginUser) && userId != loginUser.getId()) {
+            throw new BusinessException(ErrorCode.NO_AUTH, "无权限");
+        }
+        // 在当前标签上先移除再添加
+        return changeTags(userId, oldTagList -> {
+            Set<String> tagSet = new LinkedHashSet<>(oldTagList);
+            removeList.forEach(tagSet::remove);
+            tagSet.addAll(addList);
+            return new ArrayList<>(tagSet);
+        });
+    }
+
+    /**
+     * 管理员搜索用户：每页最多 SEARCH_MAX_PAGE_SIZE 条，多查一条判断是否有下一页
+     * 前缀匹配按 (username, id) 排序，走 idx_username_id 索引；包含匹配和列出全部按 id 排序，包含匹配走 ngram 全文索引
+     * 下一页从游标（上一页最后一条的排序键）之后继续，不使用 offset
+     * @param userSearchRequest
+     * @return
+     */
+    @Override
+    public CursorPageVO<User> searchUsers(UserSearchRequest userSearchRequest) {
+        if (userSearchRequest == null) {
+            throw new BusinessException(ErrorCode.PARAMS_ERROR);
+        }
+        int pageSize = Optional.ofNullable(userSearchRequest.getPageSize()).orElse(SEARCH_DEFAULT_PAGE_SIZE);
+        if (pageSize <= 0 || pageSize > SEARCH_MAX_PAGE_SIZE) {
+            throw new BusinessException(ErrorCode.PARAMS_ERROR, "每页条数不能超过" + SEARCH_MAX_PAGE_SIZE);
+        }
+        String username = StringUtils.trimToEmpty(userSearchRequest.getUsername());
+        String matchMode = StringUtils.defaultIfBlank(userSearchRequest.getMatchMode(), SEARCH_MATCH_PREFIX);
+        boolean prefixMatch;
+        if (SEARCH_MATCH_PREFIX.equals(matchMode)) {
+            prefixMatch = !username.isEmpty();
+        } else if (SEARCH_MATCH_CONTAINS.equals(matchMode)) {
+            // 双引号会破坏全文检索的短语语法
+            username = username.replace("\"", "");
+            // 全文索引的 ngram 长度为 2，更短的关键词无法按包含匹配
+            if (username.length() < 2) {
+                throw new BusinessException(ErrorCode.PARAMS_ERROR, "关键词至少 2 个字符");
+            }
+            prefixMatch = false;
+        } else {
+            throw new BusinessException(ErrorCode.PARAMS_ERROR, "匹配方式错误");
+        }
+        Pair<String, Long> cursor = decodeSearchCursor(userSearchRequest.getCursor(), prefixMatch);
+        QueryWrapper<User> queryWrapper = new QueryWrapper<>();
+        queryWrapper.select(SafeUserColumns.COLUMNS);
+        if (prefixMatch) {
+            // username like 'xxx%' and (username > ? or (username = ? and id > ?)) order by username, id
+            queryWrapper.likeRight("username", escapeLike(username));
+            if (cursor != null) {
+                queryWrapper.and(wrapper -> wrapper.gt("username", cursor.getLeft())
+                        .or(orWrapper -> orWrapper.eq("username", cursor.getLeft()).gt("id", cursor.getRight())));
+            }
+            queryWrapper.orderByAsc("username", "id");
+        } else {
+            if (!username.isEmpty()) {
+                // 短语检索：关键词的 ngram 依次相邻出现，即昵称包含关键词
+                queryWrapper.apply("match(username) against({0} in boolean mode)", "\"" + username + "\"");
+            }
+            if (cursor != null) {
+                queryWrapper.gt("id", cursor.getRight());
+            }
+            queryWrapper.orderByAsc("id");
+        }
+        queryWrapper.last("limit " + (pageSize + 1));
+        List<User> userList = this.list(queryWrapper);
+        boolean hasMore = userList.size() > pageSize;
+        if (hasMore) {
+            userList = userList.subList(0, pageSize);
+        }
+        CursorPageVO<User> userPage = new CursorPageVO<>();
+        userPage.setRecords(userList.stream().map(this::setSafetyUser).collect(Collectors.toList()));
+        userPage.setHasMore(hasMore);
+        if (hasMore) {
+            userPage.setNextCursor(encodeSearchCursor(userList.get(userList.size() - 1), prefixMatch));
+        }
+        return userPage;
+    }
+
+    /**
+     * 搜索游标：前缀匹配为 昵称\nid，其余为 id，Base64 编码
+     */
+    private String encodeSearchCursor(User lastUser, boolean prefixMatch) {
+        String cursor = prefixMatch ? lastUser.getUsername() + "\n" + lastUser.getId() : String.valueOf(lastUser.getId());
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(cursor.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 解析搜索游标
+     * @return 上一页最后一条的 (昵称, id)，游标为空时返回 null
+     */
+    private Pair<String, Long> decodeSearchCursor(String cursor, boolean prefixMatch) {
+        if (StringUtils.isBlank(cursor)) {
+            return null;
+        }
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (!prefixMatch) {
+                return Pair.of(null, Long.parseLong(decoded));
+            }
+            // 昵称可能包含换行，id 在最后一个换行之后
+            int index = decoded.lastIndexOf('\n');
+            return Pair.of(decoded.substring(0, index), Long.parseLong(decoded.substring(index + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            throw new BusinessException(ErrorCode.PARAMS_ERROR, "游标错误");
+        }
+    }
+
+    /**
+     * 转义 like 的通配符，关键词中的 % 和 _ 按普通字符匹配
+     */
+    private static String escapeLike(String keyword) {
+        return keyword.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    /**
+     * 修改用户标签：只读取 id、tags、version，只更新 tags 列，版本冲突时重新读取后重试
+     * @param userId
+     * @param change 根据当前标签计算新标签
+     * @return
+     */
+    private boolean changeTags(long userId, Function<List<String>, List<String>> change) {
         Gson gson = new Gson();
-        List<String> oldTagsList = gson.fromJson(tags, new TypeToken<List<String>>() {}.getType());
-        // 添加新标签
-        oldTagsList.addAll(newTagList.stream().filter(tag -> !oldTagsList.contains(tag)).collect(Collectors.toList()));
-        // 移除老标签
-        oldTagsList.removeAll(oldTagsList.stream().filter(tag -> !newTagList.contains(tag)).collect(Collectors.toList()));
-        String tagList = gson.toJson(newTagList);
-        //更改标签
-        user.setTags(tagList);
-        return this.updateById(user);
+        for (int i = 0; i < MAX_TAG_UPDATE_RETRY; i++) {
+            QueryWrapper<User> queryWrapper = new QueryWrapper<>();
+            queryWrapper.select("id", "tags", "version");
+            queryWrapper.eq("id", userId);
+            User user = userMapper.selectOne(queryWrapper);
+            if (user == null) {
+                throw new BusinessException(ErrorCode.NULL_ERROR, "该用户不存在");
+            }
+            List<String> tagList = gson.fromJson(user.getTags(), new TypeToken<List<String>>() {}.getType());
+            List<String> oldTagList = Optional.ofNullable(tagList).orElse(new ArrayList<>());
+            List<String> newTagList = change.apply(oldTagList);
+            // 计算真正新增和移除的标签
+            List<String> addTags = newTagList.stream().filter(tag -> !oldTagList.contains(tag)).collect(Collectors.toList());
+            List<String> removeTags = oldTagList.stream().filter(tag -> !newTagList.contains(tag)).collect(Collectors.toList());
+            if (addTags.isEmpty() && removeTags.isEmpty()) {
+                return true;
+            }
+            if (newTagList.size() > MAX_TAG_NUM) {
+                throw new BusinessException(ErrorCode.PARAMS_ERROR, "最多设置12个标签");
+            }
+            String tags = gson.toJson(newTagList);
+            // update user set tags = ?, version = version + 1 where id = ? and version = ?
+            UpdateWrapper<User> updateWrapper = new UpdateWrapper<>();
+            updateWrapper.set("tags", tags);
+            updateWrapper.setSql("version = version + 1");
+            updateWrapper.eq("id", userId);
+            updateWrapper.eq("version", user.getVersion());
+            if (this.update(updateWrapper)) {
+                TransactionUtils.afterCommit(() -> applicationEventPublisher.publishEvent(
+                        new UserTagsChangeEvent(this, userId, addTags, removeTags, tags)));
+                return true;
+            }
+        }
+        throw new BusinessException(ErrorCode.OPERATION_CONFLICT, "标签修改频繁，请稍后重试");
     }
 
     /**
@@ -343,6 +679,7 @@ public class UserServiceImpl extends ServiceImpl<UserMapper, User>
             throw new BusinessException(ErrorCode.PARAMS_ERROR);
         }
         QueryWrapper<User> queryWrapper = new QueryWrapper<>();
+        queryWrapper.select(UserCardColumns.COLUMNS);
         // 拼接and查询
         // like '%Java%' and like '%c++%'
         for (String tagName : tagNameList) {
@@ -1,22 +1,134 @@
 package com.tu.hb.service.impl;
 
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
 import com.tu.hb.mapper.UserTeamMapper;
 import com.tu.hb.model.domain.UserTeam;
 import com.tu.hb.service.UserTeamService;
+import com.tu.hb.utils.TransactionUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.ObjectUtils;
+import org.redisson.api.RBucket;
+import org.redisson.api.RScript;
+import org.redisson.api.RSet;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.LongCodec;
 import org.springframework.stereotype.Service;
 
+import javax.annotation.Resource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static com.tu.hb.constant.RedisConstant.USER_JOIN_TEAM_KEY;
+import static com.tu.hb.constant.RedisConstant.USER_JOIN_TEAM_TTL_HOURS;
+import static com.tu.hb.constant.RedisConstant.USER_JOIN_TEAM_VERSION_KEY;
+
 /**
 * @author The tu
 * @description 针对表【user_team(用户队伍关系)】的数据库操作Service实现
 * @createDate 2024-01-16 11:06:43
 */
 @Service
+@Slf4j
 public class UserTeamServiceImpl extends ServiceImpl<UserTeamMapper, UserTeam>
     implements UserTeamService {
 
-}
+    /**
+     * 占位元素：队伍 id 自增从 1 开始，用 0 标记“已从数据库加载”，区分未加入任何队伍和缓存未命中
+     */
+    private static final Long LOADED_MARKER = 0L;
 
+    /**
+     * 回填缓存：版本号与查库前读到的一致时才整体写入（先删后写，带过期时间），
+     * 查库期间有成员变更（版本号已自增）则放弃回填，避免把旧数据缓存 24 小时
+     */
+    private static final String FILL_IF_VERSION_MATCH_SCRIPT =
+            "if tonumber(redis.call('get', KEYS[2]) or '0') ~= tonumber(ARGV[1]) then return 0 end "
+                    + "redis.call('del', KEYS[1]) "
+                    + "for i = 3, #ARGV do redis.call('sadd', KEYS[1], ARGV[i]) end "
+                    + "redis.call('expire', KEYS[1], ARGV[2]) "
+                    + "return 1";
 
+    /**
+     * 成员变更：版本号自增并删除缓存，下次读取重新加载
+     */
+    private static final String INVALIDATE_SCRIPT =
+            "redis.call('incr', KEYS[2]) "
+                    + "redis.call('expire', KEYS[2], ARGV[1]) "
+                    + "return redis.call('del', KEYS[1])";
 
+    @Resource
+    private RedissonClient redissonClient;
 
+    @Override
+    public Set<Long> listJoinTeamIds(Long userId) {
+        String key = String.format(USER_JOIN_TEAM_KEY, userId);
+        String versionKey = String.format(USER_JOIN_TEAM_VERSION_KEY, userId);
+        RSet<Long> joinTeamSet = redissonClient.getSet(key, LongCodec.INSTANCE);
+        Long version = null;
+        try {
+            Set<Long> cached = joinTeamSet.readAll();
+            if (!cached.isEmpty()) {
+                cached.remove(LOADED_MARKER);
+                return cached;
+            }
+            // 查库前记下版本号，回填时比对
+            RBucket<Long> versionBucket = redissonClient.getBucket(versionKey, LongCodec.INSTANCE);
+            version = ObjectUtils.defaultIfNull(versionBucket.get(), 0L);
+        } catch (Exception e) {
+            log.error("redis read join team error, userId = {}", userId, e);
+        }
+        // 缓存未命中，查询关系表
+        QueryWrapper<UserTeam> queryWrapper = new QueryWrapper<>();
+        queryWrapper.select("teamId");
+        queryWrapper.eq("userId", userId);
+        Set<Long> teamIdSet = this.list(queryWrapper).stream()
+                .map(UserTeam::getTeamId)
+                .collect(Collectors.toSet());
+        if (version == null) {
+            return teamIdSet;
+        }
+        try {
+            List<Object> args = new ArrayList<>(teamIdSet.size() + 3);
+            args.add(version);
+            args.add(Duration.ofHours(USER_JOIN_TEAM_TTL_HOURS).getSeconds());
+            args.add(LOADED_MARKER);
+            args.addAll(teamIdSet);
+            redissonClient.getScript(LongCodec.INSTANCE).eval(RScript.Mode.READ_WRITE, FILL_IF_VERSION_MATCH_SCRIPT,
+                    RScript.ReturnType.INTEGER, Arrays.asList(key, versionKey), args.toArray());
+        } catch (Exception e) {
+            log.error("redis write join team error, userId = {}", userId, e);
+        }
+        return teamIdSet;
+    }
+
+    @Override
+    public void invalidateJoinTeamAfterCommit(Long userId) {
+        TransactionUtils.afterCommit(() -> invalidateJoinTeamCache(userId));
+    }
+
+    /**
+     * 不在缓存上增删元素：缓存不存在时增删是空操作，与并发回填交错会留下旧集合
+     */
+    private void invalidateJoinTeamCache(Long userId) {
+        String key = String.format(USER_JOIN_TEAM_KEY, userId);
+        String versionKey = String.format(USER_JOIN_TEAM_VERSION_KEY, userId);
+        try {
+            redissonClient.getScript(LongCodec.INSTANCE).eval(RScript.Mode.READ_WRITE, INVALIDATE_SCRIPT,
+                    RScript.ReturnType.INTEGER, Arrays.asList(key, versionKey),
+                    Duration.ofHours(USER_JOIN_TEAM_TTL_HOURS).getSeconds());
+        } catch (Exception e) {
+            // 版本号更新失败时至少删除缓存
+            log.error("redis invalidate join team error, key = {}", key, e);
+            try {
+                redissonClient.getKeys().delete(key);
+            } catch (Exception ex) {
+                log.error("redis delete join team error, key = {}", key, ex);
+            }
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.tu.hb.utils;
+
+import java.util.Date;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/**
+ * 变更字段工具类：只把真正发生变化的字段写入待更新对象，生成最小化的 UPDATE
+ */
+public class DirtyFieldUtils {
+
+    /**
+     * 新值不为空且与旧值不同时，通过 setter 写入待更新对象
+     *
+     * @param newValue 请求中的新值（为空表示不修改）
+     * @param oldValue 当前值
+     * @param setter   待更新对象的 setter
+     * @param <V>
+     * @return 是否发生变化
+     */
+    public static <V> boolean setIfChanged(V newValue, V oldValue, Consumer<V> setter) {
+        if (newValue == null || isSame(newValue, oldValue)) {
+            return false;
+        }
+        setter.accept(newValue);
+        return true;
+    }
+
+    private static boolean isSame(Object newValue, Object oldValue) {
+        // 数据库读出的是 Timestamp，Timestamp.equals(Date) 恒为 false，统一按毫秒比较
+        if (newValue instanceof Date && oldValue instanceof Date) {
+            return ((Date) newValue).getTime() == ((Date) oldValue).getTime();
+        }
+        return Objects.equals(newValue, oldValue);
+    }
+}
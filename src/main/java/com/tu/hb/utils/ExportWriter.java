@@ -0,0 +1,166 @@
+package com.tu.hb.utils;
+
+import cn.hutool.core.date.DateUtil;
+import com.alibaba.excel.EasyExcel;
+import com.alibaba.excel.ExcelWriter;
+import com.alibaba.excel.write.metadata.WriteSheet;
+import com.tu.hb.constant.ExportFormatEnum;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * 逐行写出导出文件，内存中只保留一小批行
+ */
+public abstract class ExportWriter implements Closeable {
+
+    /**
+     * 每写入多少行刷新一次输出流（CSV）或提交一次给 EasyExcel（Excel）
+     */
+    protected static final int FLUSH_ROWS = 1000;
+
+    protected long rowCount = 0;
+
+    /**
+     * 创建写入器，表头在创建时写出
+     *
+     * @param exportFormat 格式
+     * @param headList     表头
+     * @param outputStream 输出流，关闭写入器时不会关闭
+     * @return
+     * @throws IOException
+     */
+    public static ExportWriter create(ExportFormatEnum exportFormat, List<String> headList, OutputStream outputStream) throws IOException {
+        if (exportFormat == ExportFormatEnum.EXCEL) {
+            return new ExcelExportWriter(headList, outputStream);
+        }
+        return new CsvExportWriter(headList, outputStream);
+    }
+
+    /**
+     * 写入一行，列的顺序与表头一致
+     *
+     * @param row
+     * @throws IOException
+     */
+    public abstract void writeRow(List<Object> row) throws IOException;
+
+    public long getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * CSV：每行直接写入带缓冲的输出流，定期刷新，响应以分块传输逐步发给客户端
+     */
+    private static class CsvExportWriter extends ExportWriter {
+
+        private final Writer writer;
+
+        CsvExportWriter(List<String> headList, OutputStream outputStream) throws IOException {
+            this.writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8), 64 * 1024);
+            // BOM，Excel 打开时按 UTF-8 识别中文
+            writer.write('\uFEFF');
+            writeLine(new ArrayList<>(headList));
+        }
+
+        @Override
+        public void writeRow(List<Object> row) throws IOException {
+            writeLine(row);
+            if (++rowCount % FLUSH_ROWS == 0) {
+                writer.flush();
+            }
+        }
+
+        private void writeLine(List<Object> row) throws IOException {
+            writer.write(row.stream().map(CsvExportWriter::escape).collect(Collectors.joining(",")));
+            writer.write("\r\n");
+        }
+
+        /**
+         * 含逗号、引号、换行的值加引号；以 = + - @ 开头的文本前加单引号，避免被表格软件当作公式执行
+         */
+        private static String escape(Object value) {
+            if (value == null) {
+                return "";
+            }
+            if (value instanceof Number) {
+                return value.toString();
+            }
+            String text = value instanceof Date ? DateUtil.formatDateTime((Date) value) : value.toString();
+            if (!text.isEmpty() && "=+-@".indexOf(text.charAt(0)) >= 0) {
+                text = "'" + text;
+            }
+            if (text.indexOf(',') >= 0 || text.indexOf('"') >= 0 || text.indexOf('\n') >= 0 || text.indexOf('\r') >= 0) {
+                text = "\"" + text.replace("\"", "\"\"") + "\"";
+            }
+            return text;
+        }
+
+        @Override
+        public void close() throws IOException {
+            writer.flush();
+        }
+    }
+
+    /**
+     * Excel：EasyExcel 使用 SXSSF，已写入的行落到临时文件，结束时压缩写出（xlsx 是 zip 格式，无法边写边发）
+     * 单个工作表最多 1048576 行，超过时写入下一个工作表
+     */
+    private static class ExcelExportWriter extends ExportWriter {
+
+        private static final int MAX_SHEET_ROWS = 1000000;
+
+        private final ExcelWriter excelWriter;
+
+        private final List<List<Object>> bufferList = new ArrayList<>(FLUSH_ROWS);
+
+        private WriteSheet writeSheet;
+
+        private int sheetNo = 0;
+
+        private int sheetRowCount = 0;
+
+        ExcelExportWriter(List<String> headList, OutputStream outputStream) {
+            this.excelWriter = EasyExcel.write(outputStream)
+                    .head(headList.stream().map(Collections::singletonList).collect(Collectors.toList()))
+                    .autoCloseStream(false)
+                    .build();
+            this.writeSheet = EasyExcel.writerSheet(sheetNo, "sheet" + (sheetNo + 1)).build();
+            // 没有数据时也写出表头
+            excelWriter.write(Collections.emptyList(), writeSheet);
+        }
+
+        @Override
+        public void writeRow(List<Object> row) {
+            bufferList.add(row);
+            rowCount++;
+            if (bufferList.size() >= FLUSH_ROWS) {
+                flushBuffer();
+            }
+        }
+
+        private void flushBuffer() {
+            if (sheetRowCount + bufferList.size() > MAX_SHEET_ROWS) {
+                sheetNo++;
+                sheetRowCount = 0;
+                writeSheet = EasyExcel.writerSheet(sheetNo, "sheet" + (sheetNo + 1)).build();
+            }
+            excelWriter.write(bufferList, writeSheet);
+            sheetRowCount += bufferList.size();
+            bufferList.clear();
+        }
+
+        @Override
+        public void close() {
+            if (!bufferList.isEmpty()) {
+                flushBuffer();
+            }
+            excelWriter.finish();
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.tu.hb.utils;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * 事务工具类
+ */
+public class TransactionUtils {
+
+    /**
+     * 在当前事务提交后执行（没有事务时立即执行），用于同步缓存，避免事务回滚后缓存与数据库不一致
+     *
+     * @param runnable
+     */
+    public static void afterCommit(Runnable runnable) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            runnable.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                runnable.run();
+            }
+        });
+    }
+
+    /**
+     * 在当前事务回滚后执行（没有事务时不执行），用于归还事务中预占的资源
+     *
+     * @param runnable
+     */
+    public static void afterRollback(Runnable runnable) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    runnable.run();
+                }
+            }
+        });
+    }
+
+    /**
+     * 在当前事务结束后执行（提交或回滚，没有事务时立即执行），用于释放需要持有到事务结束的锁
+     *
+     * @param runnable
+     */
+    public static void afterCompletion(Runnable runnable) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            runnable.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                runnable.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,44 @@
+package com.tu.hb.manage;
+
+import com.tu.hb.model.dto.MultipartUploadSession;
+
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 测试用的分片上传会话，保存在内存中
+ */
+public class FakeMultipartSessionManager extends MultipartSessionManager {
+
+    private final Map<String, MultipartUploadSession> sessionMap = new ConcurrentHashMap<>();
+
+    private final Map<String, SortedMap<Integer, String>> partMap = new ConcurrentHashMap<>();
+
+    @Override
+    public void save(MultipartUploadSession session) {
+        sessionMap.put(session.getUploadId(), session);
+    }
+
+    @Override
+    public MultipartUploadSession get(String uploadId) {
+        return sessionMap.get(uploadId);
+    }
+
+    @Override
+    public void recordPart(String uploadId, int partNumber, String eTag) {
+        partMap.computeIfAbsent(uploadId, key -> new TreeMap<>()).put(partNumber, eTag);
+    }
+
+    @Override
+    public SortedMap<Integer, String> getParts(String uploadId) {
+        return new TreeMap<>(partMap.getOrDefault(uploadId, new TreeMap<>()));
+    }
+
+    @Override
+    public void delete(String uploadId) {
+        sessionMap.remove(uploadId);
+        partMap.remove(uploadId);
+    }
+}
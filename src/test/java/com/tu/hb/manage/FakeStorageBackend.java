@@ -0,0 +1,142 @@
+package com.tu.hb.manage;
+
+import com.tu.hb.model.dto.StorageObjectInfo;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.Date;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 测试用的本地假存储，对象保存在内存中
+ */
+public class FakeStorageBackend implements StorageBackend {
+
+    public static final String FAKE_HOST = "http://fake-storage";
+
+    private final Map<String, byte[]> objectMap = new ConcurrentHashMap<>();
+
+    /**
+     * 分片上传 id => 分片序号 => 分片内容
+     */
+    private final Map<String, Map<Integer, byte[]>> multipartMap = new ConcurrentHashMap<>();
+
+    @Override
+    public void putObject(String key, InputStream inputStream, long contentLength, String contentType) {
+        try {
+            objectMap.put(key, readAll(inputStream));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public String initiateMultipartUpload(String key, String contentType) {
+        String uploadId = UUID.randomUUID().toString().replace("-", "");
+        multipartMap.put(uploadId, new ConcurrentHashMap<>());
+        return uploadId;
+    }
+
+    @Override
+    public String uploadPart(String key, String uploadId, int partNumber, InputStream inputStream, long partSize) {
+        Map<Integer, byte[]> partMap = multipartMap.get(uploadId);
+        if (partMap == null) {
+            throw new IllegalStateException("upload not found: " + uploadId);
+        }
+        try {
+            byte[] bytes = readAll(inputStream);
+            partMap.put(partNumber, bytes);
+            return "etag-" + partNumber + "-" + bytes.length;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void completeMultipartUpload(String key, String uploadId, SortedMap<Integer, String> partETags) {
+        Map<Integer, byte[]> partMap = multipartMap.remove(uploadId);
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        for (Integer partNumber : partETags.keySet()) {
+            byte[] bytes = partMap.get(partNumber);
+            outputStream.write(bytes, 0, bytes.length);
+        }
+        objectMap.put(key, outputStream.toByteArray());
+    }
+
+    @Override
+    public void abortMultipartUpload(String key, String uploadId) {
+        multipartMap.remove(uploadId);
+    }
+
+    /**
+     * 未完成的分片上传数量
+     */
+    public int getMultipartCount() {
+        return multipartMap.size();
+    }
+
+    @Override
+    public InputStream getObject(String key) {
+        byte[] bytes = objectMap.get(key);
+        return bytes == null ? null : new ByteArrayInputStream(bytes);
+    }
+
+    @Override
+    public URL generatePresignedPutUrl(String key, Date expiration, long contentLength, String contentType) {
+        try {
+            return new URL(FAKE_HOST + key + "?expire=" + expiration.getTime() + "&length=" + contentLength);
+        } catch (MalformedURLException e) {
+            throw new IllegalArgumentException(e);
+        }
+    }
+
+    @Override
+    public StorageObjectInfo getObjectInfo(String key) {
+        byte[] bytes = objectMap.get(key);
+        if (bytes == null) {
+            return null;
+        }
+        StorageObjectInfo storageObjectInfo = new StorageObjectInfo();
+        storageObjectInfo.setContentLength(bytes.length);
+        return storageObjectInfo;
+    }
+
+    @Override
+    public void deleteObject(String key) {
+        objectMap.remove(key);
+    }
+
+    @Override
+    public String getUrl(String key) {
+        return FAKE_HOST + key;
+    }
+
+    /**
+     * 模拟客户端直传
+     */
+    public void clientPut(String key, byte[] bytes) {
+        objectMap.put(key, bytes);
+    }
+
+    public boolean exists(String key) {
+        return objectMap.containsKey(key);
+    }
+
+    private static byte[] readAll(InputStream inputStream) throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        int len;
+        while ((len = inputStream.read(buffer)) != -1) {
+            outputStream.write(buffer, 0, len);
+        }
+        return outputStream.toByteArray();
+    }
+}
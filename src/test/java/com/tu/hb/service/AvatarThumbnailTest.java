@@ -0,0 +1,73 @@
+package com.tu.hb.service;
+
+import com.tu.hb.manage.AvatarThumbnailManager;
+import com.tu.hb.manage.FakeStorageBackend;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.util.Map;
+
+/**
+ * 头像缩略图（使用本地假存储）
+ */
+public class AvatarThumbnailTest {
+
+    private final FakeStorageBackend fakeStorageBackend = new FakeStorageBackend();
+
+    private final AvatarThumbnailManager avatarThumbnailManager = new AvatarThumbnailManager();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(avatarThumbnailManager, "storageBackend", fakeStorageBackend);
+    }
+
+    @Test
+    void testGenerate() throws Exception {
+        String key = "/user_avatar/1/abc.png";
+        Map<Integer, String> variantMap = avatarThumbnailManager.generate(key, buildPng(800, 400));
+        Assertions.assertEquals(3, variantMap.size());
+        Assertions.assertEquals(FakeStorageBackend.FAKE_HOST + "/user_avatar/1/abc_48.jpg", variantMap.get(48));
+        // 等比缩放，最长边等于目标边长
+        try (InputStream inputStream = fakeStorageBackend.getObject("/user_avatar/1/abc_48.jpg")) {
+            BufferedImage thumbnail = ImageIO.read(inputStream);
+            Assertions.assertEquals(48, thumbnail.getWidth());
+            Assertions.assertEquals(24, thumbnail.getHeight());
+        }
+    }
+
+    @Test
+    void testGenerateSmallImageNotUpscaled() throws Exception {
+        String key = "/user_avatar/1/small.png";
+        avatarThumbnailManager.generate(key, buildPng(100, 100));
+        try (InputStream inputStream = fakeStorageBackend.getObject("/user_avatar/1/small_256.jpg")) {
+            Assertions.assertEquals(100, ImageIO.read(inputStream).getWidth());
+        }
+    }
+
+    @Test
+    void testGenerateUnsupported() throws Exception {
+        String key = "/user_avatar/1/abc.svg";
+        byte[] svg = "<svg xmlns=\"http://www.w3.org/2000/svg\"/>".getBytes();
+        Assertions.assertTrue(avatarThumbnailManager.generate(key, svg).isEmpty());
+        Assertions.assertFalse(fakeStorageBackend.exists("/user_avatar/1/abc_48.jpg"));
+    }
+
+    @Test
+    void testBuildThumbnailKey() {
+        Assertions.assertEquals("/user_avatar/1/a.b_48.jpg", AvatarThumbnailManager.buildThumbnailKey("/user_avatar/1/a.b.png", 48));
+        Assertions.assertEquals("/user_avatar/1.0/abc_48.jpg", AvatarThumbnailManager.buildThumbnailKey("/user_avatar/1.0/abc", 48));
+    }
+
+    private byte[] buildPng(int width, int height) throws Exception {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", outputStream);
+        return outputStream.toByteArray();
+    }
+}
@@ -0,0 +1,124 @@
+package com.tu.hb.service;
+
+import com.tu.hb.model.convert.TeamConvert;
+import com.tu.hb.model.convert.UserConvert;
+import com.tu.hb.model.domain.Team;
+import com.tu.hb.model.domain.User;
+import com.tu.hb.model.vo.TeamUserVO;
+import com.tu.hb.model.vo.UserVO;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.BeanUtils;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+public class ConvertTest {
+
+    /**
+     * 手写转换和 BeanUtils.copyProperties 的结果一致（新增字段漏改时会失败）
+     */
+    @Test
+    void testSameAsBeanUtils() {
+        Team team = buildTeam(1L);
+        TeamUserVO expectedTeam = new TeamUserVO();
+        BeanUtils.copyProperties(team, expectedTeam);
+        Assertions.assertEquals(expectedTeam, TeamConvert.toTeamUserVO(team));
+
+        User user = buildUser(1L);
+        UserVO expectedUser = new UserVO();
+        BeanUtils.copyProperties(user, expectedUser);
+        Assertions.assertEquals(expectedUser, UserConvert.toUserVO(user));
+
+        User safetyUser = UserConvert.toSafeUser(user);
+        Assertions.assertNull(safetyUser.getUserPassword());
+        Assertions.assertNull(safetyUser.getIsDelete());
+        Assertions.assertEquals(user.getTags(), safetyUser.getTags());
+        Assertions.assertEquals(user.getAvatarVariants(), safetyUser.getAvatarVariants());
+        Assertions.assertEquals(user.getVersion(), safetyUser.getVersion());
+    }
+
+    /**
+     * 渲染 500 个队伍（含队长信息）时，新旧两种复制方式的结果逐个一致
+     */
+    @Test
+    void testListSameAsBeanUtils() {
+        final int TEAM_NUM = 500;
+        List<Team> teamList = new ArrayList<>();
+        List<User> userList = new ArrayList<>();
+        for (long i = 0; i < TEAM_NUM; i++) {
+            teamList.add(buildTeam(i));
+            userList.add(buildUser(i));
+        }
+        List<TeamUserVO> expectedList = convertByBeanUtils(teamList, userList);
+        List<TeamUserVO> actualList = convertByConvert(teamList, userList);
+        Assertions.assertEquals(TEAM_NUM, actualList.size());
+        Assertions.assertEquals(expectedList, actualList);
+        Assertions.assertEquals("user499", actualList.get(499).getCreateUser().getUsername());
+    }
+
+    private List<TeamUserVO> convertByBeanUtils(List<Team> teamList, List<User> userList) {
+        List<TeamUserVO> teamUserVOList = new ArrayList<>(teamList.size());
+        for (int i = 0; i < teamList.size(); i++) {
+            TeamUserVO teamUserVO = new TeamUserVO();
+            BeanUtils.copyProperties(teamList.get(i), teamUserVO);
+            UserVO userVO = new UserVO();
+            BeanUtils.copyProperties(userList.get(i), userVO);
+            teamUserVO.setCreateUser(userVO);
+            teamUserVOList.add(teamUserVO);
+        }
+        return teamUserVOList;
+    }
+
+    private List<TeamUserVO> convertByConvert(List<Team> teamList, List<User> userList) {
+        List<TeamUserVO> teamUserVOList = new ArrayList<>(teamList.size());
+        for (int i = 0; i < teamList.size(); i++) {
+            TeamUserVO teamUserVO = TeamConvert.toTeamUserVO(teamList.get(i));
+            teamUserVO.setCreateUser(UserConvert.toUserVO(userList.get(i)));
+            teamUserVOList.add(teamUserVO);
+        }
+        return teamUserVOList;
+    }
+
+    private Team buildTeam(long id) {
+        Team team = new Team();
+        team.setId(id);
+        team.setName("team" + id);
+        team.setAvatarUrl("https://fastly.jsdelivr.net/npm/@vant/assets/ipad.jpeg");
+        team.setAvatarVariants("{\"48\":\"https://fastly.jsdelivr.net/npm/@vant/assets/ipad_48.jpg\"}");
+        team.setDescription("description");
+        team.setUserId(id);
+        team.setMaxNum(5);
+        team.setStatus(0);
+        team.setPassword("");
+        team.setExpireTime(new Date());
+        team.setCreateTime(new Date());
+        team.setUpdateTime(new Date());
+        team.setIsDelete(0);
+        team.setVersion(1);
+        return team;
+    }
+
+    private User buildUser(long id) {
+        User user = new User();
+        user.setId(id);
+        user.setUsername("user" + id);
+        user.setUserAccount("account" + id);
+        user.setUserPassword("12345678");
+        user.setAvatarUrl("https://fastly.jsdelivr.net/npm/@vant/assets/ipad.jpeg");
+        user.setAvatarVariants("{\"48\":\"https://fastly.jsdelivr.net/npm/@vant/assets/ipad_48.jpg\"}");
+        user.setGender(0);
+        user.setPhone("12345678901");
+        user.setEmail("1234@qq.com");
+        user.setUserStatus(0);
+        user.setCreateTime(new Date());
+        user.setUpdateTime(new Date());
+        user.setIsDelete(0L);
+        user.setUserRole(0);
+        user.setTags("[\"java\"]");
+        user.setProfile("profile");
+        user.setVersion(1);
+        return user;
+    }
+}
@@ -0,0 +1,35 @@
+package com.tu.hb.service;
+
+import com.tu.hb.model.domain.Team;
+import com.tu.hb.utils.DirtyFieldUtils;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Timestamp;
+import java.util.Date;
+
+public class DirtyFieldTest {
+
+    @Test
+    void testSetIfChanged() {
+        Team updateTeam = new Team();
+        // 为空表示不修改
+        Assertions.assertFalse(DirtyFieldUtils.setIfChanged(null, "old", updateTeam::setName));
+        // 相同不修改
+        Assertions.assertFalse(DirtyFieldUtils.setIfChanged("old", "old", updateTeam::setName));
+        Assertions.assertNull(updateTeam.getName());
+        // 不同才写入
+        Assertions.assertTrue(DirtyFieldUtils.setIfChanged("new", "old", updateTeam::setName));
+        Assertions.assertEquals("new", updateTeam.getName());
+        // 旧值为空时写入新值
+        Assertions.assertTrue(DirtyFieldUtils.setIfChanged("desc", null, updateTeam::setDescription));
+    }
+
+    @Test
+    void testDateCompareWithTimestamp() {
+        Team updateTeam = new Team();
+        long now = System.currentTimeMillis();
+        Assertions.assertFalse(DirtyFieldUtils.setIfChanged(new Date(now), new Timestamp(now), updateTeam::setExpireTime));
+        Assertions.assertTrue(DirtyFieldUtils.setIfChanged(new Date(now + 1000), new Timestamp(now), updateTeam::setExpireTime));
+    }
+}
@@ -0,0 +1,65 @@
+package com.tu.hb.service;
+
+import com.alibaba.excel.EasyExcel;
+import com.tu.hb.constant.ExportFormatEnum;
+import com.tu.hb.utils.ExportWriter;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 导出文件写入
+ */
+public class ExportWriterTest {
+
+    private static final List<String> HEAD_LIST = Arrays.asList("id", "昵称", "标签");
+
+    @Test
+    void testCsv() throws Exception {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        try (ExportWriter exportWriter = ExportWriter.create(ExportFormatEnum.CSV, HEAD_LIST, outputStream)) {
+            exportWriter.writeRow(Arrays.asList(1L, "小明", "[\"java\",\"c++\"]"));
+            exportWriter.writeRow(Arrays.asList(2L, "=1+1", null));
+            exportWriter.writeRow(Arrays.asList(-3L, "a\nb", "[]"));
+        }
+        String csv = new String(outputStream.toByteArray(), StandardCharsets.UTF_8);
+        String[] lines = csv.substring(1).split("\r\n");
+        Assertions.assertEquals('\uFEFF', csv.charAt(0));
+        Assertions.assertEquals("id,昵称,标签", lines[0]);
+        // 含逗号和引号的值加引号，引号转义
+        Assertions.assertEquals("1,小明,\"[\"\"java\"\",\"\"c++\"\"]\"", lines[1]);
+        // 公式前加单引号，null 为空
+        Assertions.assertEquals("2,'=1+1,", lines[2]);
+        // 负数不是公式，换行加引号
+        Assertions.assertEquals("-3,\"a\nb\",[]", lines[3]);
+    }
+
+    @Test
+    void testExcel() throws Exception {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        ExportWriter exportWriter = ExportWriter.create(ExportFormatEnum.EXCEL, HEAD_LIST, outputStream);
+        for (long i = 0; i < 2500; i++) {
+            exportWriter.writeRow(Arrays.asList(i, "user" + i, "[]"));
+        }
+        exportWriter.close();
+        Assertions.assertEquals(2500, exportWriter.getRowCount());
+        List<Map<Integer, String>> rowList = EasyExcel.read(new ByteArrayInputStream(outputStream.toByteArray())).sheet().doReadSync();
+        Assertions.assertEquals(2500, rowList.size());
+        Assertions.assertEquals("user2499", rowList.get(2499).get(1));
+    }
+
+    @Test
+    void testExcelEmpty() throws Exception {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        ExportWriter.create(ExportFormatEnum.EXCEL, HEAD_LIST, outputStream).close();
+        List<Map<Integer, String>> headList = EasyExcel.read(new ByteArrayInputStream(outputStream.toByteArray()))
+                .headRowNumber(0).sheet().doReadSync();
+        Assertions.assertEquals("昵称", headList.get(0).get(1));
+    }
+}
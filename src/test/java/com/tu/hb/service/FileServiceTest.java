@@ -0,0 +1,156 @@
+package com.tu.hb.service;
+
+import com.tu.hb.common.ErrorCode;
+import com.tu.hb.constant.FileConstant;
+import com.tu.hb.exception.BusinessException;
+import com.tu.hb.manage.FakeMultipartSessionManager;
+import com.tu.hb.manage.FakeStorageBackend;
+import com.tu.hb.model.domain.User;
+import com.tu.hb.model.request.MultipartInitRequest;
+import com.tu.hb.model.request.PresignUploadRequest;
+import com.tu.hb.model.request.UploadCompleteRequest;
+import com.tu.hb.model.vo.MultipartUploadVO;
+import com.tu.hb.model.vo.PresignUploadVO;
+import com.tu.hb.service.impl.FileServiceImpl;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.util.Collections;
+
+/**
+ * 预签名直传、分片上传（使用本地假存储）
+ */
+public class FileServiceTest {
+
+    private final FakeStorageBackend fakeStorageBackend = new FakeStorageBackend();
+
+    private final FakeMultipartSessionManager fakeMultipartSessionManager = new FakeMultipartSessionManager();
+
+    private final FileServiceImpl fileService = new FileServiceImpl();
+
+    private final User loginUser = new User();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(fileService, "storageBackend", fakeStorageBackend);
+        ReflectionTestUtils.setField(fileService, "multipartSessionManager", fakeMultipartSessionManager);
+        loginUser.setId(1L);
+    }
+
+    @Test
+    void testPresignAndComplete() {
+        PresignUploadVO presignUploadVO = fileService.presignUpload(buildPresignRequest("avatar.png", 1024L), loginUser);
+        String key = presignUploadVO.getKey();
+        Assertions.assertTrue(key.startsWith("/user_avatar/1/"));
+        Assertions.assertTrue(key.endsWith(".png"));
+        Assertions.assertTrue(presignUploadVO.getUploadUrl().startsWith(FakeStorageBackend.FAKE_HOST + key));
+
+        // 未上传时回调失败
+        BusinessException e = Assertions.assertThrows(BusinessException.class,
+                () -> fileService.completeUpload(buildCompleteRequest(key), loginUser));
+        Assertions.assertEquals(ErrorCode.NULL_ERROR.getCode(), e.getCode());
+
+        fakeStorageBackend.clientPut(key, new byte[1024]);
+        Assertions.assertEquals(FakeStorageBackend.FAKE_HOST + key, fileService.completeUpload(buildCompleteRequest(key), loginUser));
+    }
+
+    @Test
+    void testPresignInvalidFile() {
+        Assertions.assertThrows(BusinessException.class,
+                () -> fileService.presignUpload(buildPresignRequest("avatar.exe", 1024L), loginUser));
+        Assertions.assertThrows(BusinessException.class,
+                () -> fileService.presignUpload(buildPresignRequest("avatar.png", FileConstant.ONE_M + 1), loginUser));
+    }
+
+    @Test
+    void testCompleteOversizeDeleted() {
+        String key = fileService.presignUpload(buildPresignRequest("avatar.png", 1024L), loginUser).getKey();
+        fakeStorageBackend.clientPut(key, new byte[(int) FileConstant.ONE_M + 1]);
+        Assertions.assertThrows(BusinessException.class,
+                () -> fileService.completeUpload(buildCompleteRequest(key), loginUser));
+        Assertions.assertFalse(fakeStorageBackend.exists(key));
+    }
+
+    @Test
+    void testCompleteOtherUserKey() {
+        String key = fileService.presignUpload(buildPresignRequest("avatar.png", 1024L), loginUser).getKey();
+        fakeStorageBackend.clientPut(key, new byte[1024]);
+        User otherUser = new User();
+        otherUser.setId(2L);
+        BusinessException e = Assertions.assertThrows(BusinessException.class,
+                () -> fileService.completeUpload(buildCompleteRequest(key), otherUser));
+        Assertions.assertEquals(ErrorCode.NO_AUTH.getCode(), e.getCode());
+    }
+
+    @Test
+    void testMultipartUpload() {
+        long fileSize = FileConstant.ONE_M;
+        MultipartUploadVO multipartUploadVO = fileService.initMultipartUpload(buildMultipartInitRequest(fileSize), loginUser);
+        String uploadId = multipartUploadVO.getUploadId();
+        Assertions.assertEquals(1, multipartUploadVO.getPartCount());
+        Assertions.assertTrue(multipartUploadVO.getUploadedPartNumbers().isEmpty());
+
+        // 分片大小、序号不对时拒绝
+        Assertions.assertThrows(BusinessException.class,
+                () -> fileService.uploadPart(uploadId, 1, new ByteArrayInputStream(new byte[10]), 10, loginUser));
+        Assertions.assertThrows(BusinessException.class,
+                () -> fileService.uploadPart(uploadId, 2, new ByteArrayInputStream(new byte[(int) fileSize]), fileSize, loginUser));
+        // 分片未全部上传时不能合并
+        Assertions.assertThrows(BusinessException.class, () -> fileService.completeMultipartUpload(uploadId, loginUser));
+
+        Assertions.assertTrue(fileService.uploadPart(uploadId, 1, new ByteArrayInputStream(new byte[(int) fileSize]), fileSize, loginUser));
+        // 断点续传：查询已上传的分片
+        Assertions.assertEquals(Collections.singletonList(1),
+                fileService.getMultipartUpload(uploadId, loginUser).getUploadedPartNumbers());
+
+        String url = fileService.completeMultipartUpload(uploadId, loginUser);
+        Assertions.assertEquals(FakeStorageBackend.FAKE_HOST + multipartUploadVO.getKey(), url);
+        Assertions.assertEquals(fileSize, fakeStorageBackend.getObjectInfo(multipartUploadVO.getKey()).getContentLength());
+        // 完成后会话删除
+        BusinessException e = Assertions.assertThrows(BusinessException.class,
+                () -> fileService.getMultipartUpload(uploadId, loginUser));
+        Assertions.assertEquals(ErrorCode.NULL_ERROR.getCode(), e.getCode());
+    }
+
+    @Test
+    void testMultipartOtherUserAndAbort() {
+        String uploadId = fileService.initMultipartUpload(buildMultipartInitRequest(1024L), loginUser).getUploadId();
+        User otherUser = new User();
+        otherUser.setId(2L);
+        BusinessException e = Assertions.assertThrows(BusinessException.class,
+                () -> fileService.uploadPart(uploadId, 1, new ByteArrayInputStream(new byte[1024]), 1024, otherUser));
+        Assertions.assertEquals(ErrorCode.NO_AUTH.getCode(), e.getCode());
+
+        Assertions.assertTrue(fileService.abortMultipartUpload(uploadId, loginUser));
+        Assertions.assertEquals(0, fakeStorageBackend.getMultipartCount());
+        Assertions.assertThrows(BusinessException.class, () -> fileService.completeMultipartUpload(uploadId, loginUser));
+    }
+
+    private MultipartInitRequest buildMultipartInitRequest(long fileSize) {
+        MultipartInitRequest multipartInitRequest = new MultipartInitRequest();
+        multipartInitRequest.setBiz("user_avatar");
+        multipartInitRequest.setFileName("avatar.png");
+        multipartInitRequest.setFileSize(fileSize);
+        multipartInitRequest.setContentType("image/png");
+        return multipartInitRequest;
+    }
+
+    private PresignUploadRequest buildPresignRequest(String fileName, long fileSize) {
+        PresignUploadRequest presignUploadRequest = new PresignUploadRequest();
+        presignUploadRequest.setBiz("user_avatar");
+        presignUploadRequest.setFileName(fileName);
+        presignUploadRequest.setFileSize(fileSize);
+        presignUploadRequest.setContentType("image/png");
+        return presignUploadRequest;
+    }
+
+    private UploadCompleteRequest buildCompleteRequest(String key) {
+        UploadCompleteRequest uploadCompleteRequest = new UploadCompleteRequest();
+        uploadCompleteRequest.setBiz("user_avatar");
+        uploadCompleteRequest.setKey(key);
+        return uploadCompleteRequest;
+    }
+}
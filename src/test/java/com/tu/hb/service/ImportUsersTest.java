@@ -1,13 +1,21 @@
 package com.tu.hb.service;
 
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
 import com.tu.hb.mapper.UserMapper;
 import com.tu.hb.model.domain.User;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StopWatch;
 
 import javax.annotation.Resource;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.*;
 
@@ -17,6 +25,12 @@ public class ImportUsersTest {
     @Resource
     private UserService userService;
 
+    @Resource
+    private UserMapper userMapper;
+
+    @Resource
+    private JdbcTemplate jdbcTemplate;
+
     private ExecutorService executorService = new ThreadPoolExecutor(40, 1000, 10000, TimeUnit.MINUTES, new ArrayBlockingQueue<>(10000));
 
     /**
@@ -27,12 +41,14 @@ public class ImportUsersTest {
         StopWatch stopWatch = new StopWatch();
         stopWatch.start();
         final int INSERT_NUM = 100000;
+        // 账号有唯一索引，每次运行使用不同的前缀
+        String accountPrefix = "fakeUser" + System.currentTimeMillis();
         List<User> userList = new ArrayList<>();
         for (int i = 0; i < 10; i++) {
             for (int j = 0; j < INSERT_NUM; j++) {
                 User user = new User();
                 user.setUsername("假用户");
-                user.setUserAccount("fakeUser");
+                user.setUserAccount(accountPrefix + "_" + i + "_" + j);
                 user.setUserPassword("12345678");
                 user.setAvatarUrl("https://fastly.jsdelivr.net/npm/@vant/assets/ipad.jpeg");
                 user.setGender(0);
@@ -62,6 +78,8 @@ public class ImportUsersTest {
         List<CompletableFuture<Void>> futureList = new ArrayList<>();
         int batchSize = 5000;
         int j = 0;
+        // 账号有唯一索引，每次运行使用不同的前缀
+        String accountPrefix = "fakeUser" + System.currentTimeMillis();
         //分十组
         for (int i = 0; i < 20; i++) {
             List<User> userList = new ArrayList<>();
@@ -69,7 +87,7 @@ public class ImportUsersTest {
                 j++;
                 User user = new User();
                 user.setUsername("假用户");
-                user.setUserAccount("fakeUser");
+                user.setUserAccount(accountPrefix + "_" + j);
                 user.setUserPassword("12345678");
                 user.setAvatarUrl("https://fastly.jsdelivr.net/npm/@vant/assets/ipad.jpeg");
                 user.setGender(0);
@@ -95,4 +113,131 @@ public class ImportUsersTest {
         System.out.println(stopWatch.getTotalTimeMillis());
     }
 
+    /**
+     * 多行 insert：返回插入行数，自增 id 回填到每个对象（测试结束回滚）
+     */
+    @Test
+    @Transactional
+    void testInsertBatch() {
+        final int INSERT_NUM = 2500;
+        List<User> userList = buildUsers("insertBatch" + System.currentTimeMillis(), INSERT_NUM);
+        Assertions.assertEquals(INSERT_NUM, userMapper.insertBatch(userList, 1000));
+        for (int i = 0; i < INSERT_NUM; i++) {
+            Assertions.assertNotNull(userList.get(i).getId());
+            if (i > 0) {
+                Assertions.assertTrue(userList.get(i).getId() > userList.get(i - 1).getId());
+            }
+        }
+    }
+
+    /**
+     * 基准测试：对比 saveBatch（批处理执行器逐行 insert）和 insertBatchSomeColumn（多行 insert），结束后删除插入的数据
+     * 连接参数需要 rewriteBatchedStatements=true，否则 saveBatch 每行一次网络往返
+     */
+    @Test
+    @Disabled("基准测试，写入 20 万行，需要时手动运行")
+    void compareBatchInsert() {
+        final int INSERT_NUM = 100000;
+        final int BATCH_SIZE = 1000;
+        String saveBatchPrefix = "saveBatch" + System.currentTimeMillis();
+        String insertBatchPrefix = "insertBatch" + System.currentTimeMillis();
+        try {
+            List<User> saveBatchList = buildUsers(saveBatchPrefix, INSERT_NUM);
+            StopWatch stopWatch = new StopWatch();
+            stopWatch.start("saveBatch");
+            userService.saveBatch(saveBatchList, BATCH_SIZE);
+            stopWatch.stop();
+
+            List<User> insertBatchList = buildUsers(insertBatchPrefix, INSERT_NUM);
+            stopWatch.start("insertBatchSomeColumn");
+            int inserted = userMapper.insertBatch(insertBatchList, BATCH_SIZE);
+            stopWatch.stop();
+            System.out.println(stopWatch.prettyPrint());
+            Assertions.assertEquals(INSERT_NUM, inserted);
+        } finally {
+            deleteUsers(saveBatchPrefix);
+            deleteUsers(insertBatchPrefix);
+        }
+    }
+
+    /**
+     * 基准测试：多行 insert 插入一百万用户，结束后删除插入的数据
+     */
+    @Test
+    @Disabled("基准测试，写入一百万行，需要时手动运行")
+    void doInsertBatchSomeColumn() {
+        final int INSERT_NUM = 1000000;
+        String accountPrefix = "fakeUser" + System.currentTimeMillis();
+        try {
+            List<User> userList = buildUsers(accountPrefix, INSERT_NUM);
+            StopWatch stopWatch = new StopWatch();
+            stopWatch.start();
+            Assertions.assertEquals(INSERT_NUM, userMapper.insertBatch(userList, 2000));
+            stopWatch.stop();
+            System.out.println(stopWatch.getTotalTimeMillis());
+        } finally {
+            deleteUsers(accountPrefix);
+        }
+    }
+
+    /**
+     * 物理删除测试数据（逻辑删除会留下数据）
+     */
+    private void deleteUsers(String accountPrefix) {
+        jdbcTemplate.update("delete from user where userAccount like ?", accountPrefix + "\\_%");
+    }
+
+    /**
+     * 导入使用的多行 insert：账号或星球编号已被占用时整条语句报错，不修改已有用户（测试结束回滚）
+     */
+    @Test
+    @Transactional
+    void testInsertBatchUsersConflict() {
+        String prefix = "importConflict" + System.currentTimeMillis();
+        User existUser = buildUsers(prefix, 1).get(0);
+        existUser.setPlanetCode(prefix + "_exist");
+        Assertions.assertEquals(1, userMapper.insertBatchUsers(Collections.singletonList(existUser)));
+
+        // 账号被占用
+        User accountUser = buildUsers(prefix, 1).get(0);
+        accountUser.setUserPassword("changed");
+        accountUser.setPlanetCode(prefix + "_new");
+        User okUser = buildUsers(prefix + "_ok", 1).get(0);
+        okUser.setPlanetCode(prefix + "_ok");
+        Assertions.assertThrows(DuplicateKeyException.class,
+                () -> userMapper.insertBatchUsers(Arrays.asList(okUser, accountUser)));
+        // 星球编号被占用
+        User planetCodeUser = buildUsers(prefix + "_other", 1).get(0);
+        planetCodeUser.setPlanetCode(prefix + "_exist");
+        Assertions.assertThrows(DuplicateKeyException.class,
+                () -> userMapper.insertBatchUsers(Collections.singletonList(planetCodeUser)));
+
+        QueryWrapper<User> queryWrapper = new QueryWrapper<>();
+        queryWrapper.select("userPassword");
+        queryWrapper.eq("userAccount", existUser.getUserAccount());
+        Assertions.assertEquals("12345678", userMapper.selectOne(queryWrapper).getUserPassword());
+        // 失败的语句不插入任何行
+        QueryWrapper<User> countWrapper = new QueryWrapper<>();
+        countWrapper.likeRight("userAccount", prefix);
+        Assertions.assertEquals(1, userMapper.selectCount(countWrapper));
+    }
+
+    private List<User> buildUsers(String accountPrefix, int num) {
+        List<User> userList = new ArrayList<>(num);
+        for (int i = 0; i < num; i++) {
+            User user = new User();
+            user.setUsername("假用户");
+            user.setUserAccount(accountPrefix + "_" + i);
+            user.setUserPassword("12345678");
+            user.setAvatarUrl("https://fastly.jsdelivr.net/npm/@vant/assets/ipad.jpeg");
+            user.setGender(0);
+            user.setPhone("12345678901");
+            user.setEmail("1234@qq.com");
+            user.setUserStatus(0);
+            user.setUserRole(0);
+            user.setTags("[]");
+            userList.add(user);
+        }
+        return userList;
+    }
 }
@@ -0,0 +1,99 @@
+package com.tu.hb.service;
+
+import cn.hutool.core.io.IoUtil;
+import com.tu.hb.config.StorageConfig;
+import com.tu.hb.exception.BusinessException;
+import com.tu.hb.manage.LocalStorageBackend;
+import com.tu.hb.model.dto.StorageObjectInfo;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Date;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * 本地文件存储
+ */
+public class LocalStorageTest {
+
+    @TempDir
+    Path tempDir;
+
+    private final LocalStorageBackend localStorageBackend = new LocalStorageBackend();
+
+    @BeforeEach
+    void setUp() throws Exception {
+        StorageConfig storageConfig = new StorageConfig();
+        storageConfig.setType(StorageConfig.TYPE_LOCAL);
+        storageConfig.getLocal().setRootPath(tempDir.toString());
+        storageConfig.getLocal().setSecret("test-secret");
+        ReflectionTestUtils.setField(localStorageBackend, "storageConfig", storageConfig);
+        localStorageBackend.init();
+    }
+
+    @Test
+    void testPutAndDelete() {
+        String key = "/user_avatar/1/a.png";
+        localStorageBackend.putObject(key, new ByteArrayInputStream(new byte[100]), 100, "image/png");
+        StorageObjectInfo storageObjectInfo = localStorageBackend.getObjectInfo(key);
+        Assertions.assertNotNull(storageObjectInfo);
+        Assertions.assertEquals(100, storageObjectInfo.getContentLength());
+        Assertions.assertNotNull(storageObjectInfo.getETag());
+
+        localStorageBackend.deleteObject(key);
+        Assertions.assertNull(localStorageBackend.getObjectInfo(key));
+    }
+
+    @Test
+    void testPutLengthMismatch() {
+        String key = "/user_avatar/1/b.png";
+        Assertions.assertThrows(BusinessException.class,
+                () -> localStorageBackend.putObject(key, new ByteArrayInputStream(new byte[10]), 100, "image/png"));
+        Assertions.assertNull(localStorageBackend.getObjectInfo(key));
+    }
+
+    @Test
+    void testPathTraversal() {
+        Assertions.assertThrows(BusinessException.class, () -> localStorageBackend.resolve("/../secret.txt"));
+        Assertions.assertThrows(BusinessException.class, () -> localStorageBackend.resolve("/"));
+        // 分片目录不对外
+        Assertions.assertThrows(BusinessException.class, () -> localStorageBackend.resolve("/.multipart/abc/1"));
+    }
+
+    @Test
+    void testMultipartUpload() throws Exception {
+        String key = "/user_avatar/1/d.bin";
+        String uploadId = localStorageBackend.initiateMultipartUpload(key, null);
+        SortedMap<Integer, String> partETags = new TreeMap<>();
+        // 乱序上传
+        partETags.put(2, localStorageBackend.uploadPart(key, uploadId, 2, new ByteArrayInputStream(new byte[]{3, 4}), 2));
+        partETags.put(1, localStorageBackend.uploadPart(key, uploadId, 1, new ByteArrayInputStream(new byte[]{1, 2}), 2));
+        localStorageBackend.completeMultipartUpload(key, uploadId, partETags);
+        try (InputStream inputStream = localStorageBackend.getObject(key)) {
+            Assertions.assertArrayEquals(new byte[]{1, 2, 3, 4}, IoUtil.readBytes(inputStream));
+        }
+        Assertions.assertFalse(Files.exists(tempDir.resolve(".multipart").resolve(uploadId)));
+    }
+
+    @Test
+    void testPresignSignature() {
+        String key = "/user_avatar/1/c.png";
+        long expires = System.currentTimeMillis() + 60000;
+        URL url = localStorageBackend.generatePresignedPutUrl(key, new Date(expires), 1024, "image/png");
+        String signature = url.getQuery().replaceAll(".*signature=", "");
+        Assertions.assertTrue(localStorageBackend.verifySignature(key, expires, 1024, signature));
+        // 大小、路径被篡改或已过期时签名无效
+        Assertions.assertFalse(localStorageBackend.verifySignature(key, expires, 2048, signature));
+        Assertions.assertFalse(localStorageBackend.verifySignature("/user_avatar/2/c.png", expires, 1024, signature));
+        Assertions.assertFalse(localStorageBackend.verifySignature(key, System.currentTimeMillis() - 1, 1024, signature));
+    }
+}
@@ -0,0 +1,148 @@
+package com.tu.hb.service;
+
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.tu.hb.model.domain.Team;
+import com.tu.hb.model.domain.User;
+import com.tu.hb.model.domain.UserTeam;
+import com.tu.hb.model.request.TeamJoinRequest;
+import com.tu.hb.model.request.TeamQuitRequest;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.annotation.Resource;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.*;
+
+@SpringBootTest
+public class TeamServiceTest {
+
+    @Resource
+    private TeamService teamService;
+
+    @Resource
+    private UserService userService;
+
+    @Resource
+    private UserTeamService userTeamService;
+
+    @Resource
+    private JdbcTemplate jdbcTemplate;
+
+    private final List<User> testUserList = new ArrayList<>();
+
+    private final List<Long> testTeamIdList = new ArrayList<>();
+
+    private static final ExecutorService executorService = Executors.newFixedThreadPool(20);
+
+    /**
+     * 物理删除测试创建的队伍、关系和用户（退出、解散都是逻辑删除，会留下数据）
+     */
+    @AfterEach
+    void cleanUp() {
+        for (Long teamId : testTeamIdList) {
+            jdbcTemplate.update("delete from user_team where teamId = ?", teamId);
+            jdbcTemplate.update("delete from team where id = ?", teamId);
+        }
+        testTeamIdList.clear();
+        for (User user : testUserList) {
+            jdbcTemplate.update("delete from user_team where userId = ?", user.getId());
+            jdbcTemplate.update("delete from user where id = ?", user.getId());
+        }
+        testUserList.clear();
+    }
+
+    @AfterAll
+    static void shutdown() {
+        executorService.shutdownNow();
+    }
+
+    /**
+     * 所有成员同时退出，队伍应被解散且不留关系数据
+     */
+    @Test
+    void testConcurrentQuitAll() throws Exception {
+        final int MEMBER_NUM = 10;
+        Long teamId = createTeamWithMembers(MEMBER_NUM);
+        concurrentQuit(teamId, testUserList);
+
+        Assertions.assertNull(teamService.getById(teamId));
+        Assertions.assertEquals(0, countMembers(teamId));
+    }
+
+    /**
+     * 除最后入队的成员外同时退出（包括队长），队伍应保留且队长为剩下的成员
+     */
+    @Test
+    void testConcurrentQuitKeepsCaptain() throws Exception {
+        final int MEMBER_NUM = 10;
+        Long teamId = createTeamWithMembers(MEMBER_NUM);
+        User lastUser = testUserList.get(MEMBER_NUM - 1);
+        concurrentQuit(teamId, testUserList.subList(0, MEMBER_NUM - 1));
+
+        Team team = teamService.getById(teamId);
+        Assertions.assertNotNull(team);
+        Assertions.assertEquals(lastUser.getId(), team.getUserId());
+        Assertions.assertEquals(1, countMembers(teamId));
+
+        TeamQuitRequest teamQuitRequest = new TeamQuitRequest();
+        teamQuitRequest.setTeamId(teamId);
+        Assertions.assertTrue(teamService.quitTeam(teamQuitRequest, lastUser));
+        Assertions.assertNull(teamService.getById(teamId));
+    }
+
+    private Long createTeamWithMembers(int memberNum) {
+        for (int i = 0; i < memberNum; i++) {
+            User user = new User();
+            user.setUsername("quitTest");
+            user.setUserAccount("quitTest" + System.nanoTime());
+            user.setUserPassword("12345678");
+            user.setUserRole(0);
+            user.setTags("[]");
+            userService.save(user);
+            testUserList.add(user);
+        }
+        Team team = new Team();
+        team.setName("quitTest");
+        team.setMaxNum(memberNum);
+        team.setStatus(0);
+        team.setExpireTime(new Date(System.currentTimeMillis() + TimeUnit.DAYS.toMillis(1)));
+        Long teamId = teamService.addTeam(team, testUserList.get(0));
+        testTeamIdList.add(teamId);
+        for (User user : testUserList.subList(1, memberNum)) {
+            TeamJoinRequest teamJoinRequest = new TeamJoinRequest();
+            teamJoinRequest.setTeamId(teamId);
+            Assertions.assertTrue(teamService.joinTeam(teamJoinRequest, user));
+        }
+        Assertions.assertEquals(memberNum, countMembers(teamId));
+        return teamId;
+    }
+
+    private void concurrentQuit(Long teamId, List<User> userList) throws Exception {
+        CountDownLatch startLatch = new CountDownLatch(1);
+        List<Future<Boolean>> futureList = new ArrayList<>();
+        for (User user : userList) {
+            futureList.add(executorService.submit(() -> {
+                startLatch.await();
+                TeamQuitRequest teamQuitRequest = new TeamQuitRequest();
+                teamQuitRequest.setTeamId(teamId);
+                return teamService.quitTeam(teamQuitRequest, user);
+            }));
+        }
+        startLatch.countDown();
+        for (Future<Boolean> future : futureList) {
+            Assertions.assertTrue(future.get(30, TimeUnit.SECONDS));
+        }
+    }
+
+    private long countMembers(Long teamId) {
+        QueryWrapper<UserTeam> queryWrapper = new QueryWrapper<>();
+        queryWrapper.eq("teamId", teamId);
+        return userTeamService.count(queryWrapper);
+    }
+}
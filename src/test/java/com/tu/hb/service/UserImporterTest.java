@@ -0,0 +1,201 @@
+package com.tu.hb.service;
+
+import com.alibaba.excel.EasyExcel;
+import com.tu.hb.manage.UserAccountBloomFilter;
+import com.tu.hb.mapper.UserMapper;
+import com.tu.hb.model.domain.User;
+import com.tu.hb.once.TestUserInfo;
+import com.tu.hb.once.UserImportResult;
+import com.tu.hb.once.UserImporter;
+import org.apache.commons.lang3.StringUtils;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.redisson.api.RBucket;
+import org.redisson.api.RedissonClient;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Excel 批量导入用户（数据库和 Redis 用 Mockito 模拟）
+ */
+public class UserImporterTest {
+
+    @TempDir
+    Path tempDir;
+
+    private final UserImporter userImporter = new UserImporter();
+
+    private final UserMapper userMapper = mock(UserMapper.class);
+
+    /**
+     * 模拟星球编号唯一索引
+     */
+    private final Set<String> planetCodeSet = ConcurrentHashMap.newKeySet();
+
+    /**
+     * 模拟账号唯一索引
+     */
+    private final Set<String> accountSet = ConcurrentHashMap.newKeySet();
+
+    private final AtomicReference<Long> checkpoint = new AtomicReference<>();
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        when(userMapper.selectExistPlanetCodes(anyList())).thenAnswer(invocation -> {
+            List<String> planetCodeList = invocation.getArgument(0);
+            return planetCodeList.stream().filter(planetCodeSet::contains).collect(Collectors.toList());
+        });
+        doAnswer(invocation -> insertUsers(invocation.getArgument(0))).when(userMapper).insertBatchUsers(anyList());
+        RBucket<Long> bucket = mock(RBucket.class);
+        when(bucket.get()).thenAnswer(invocation -> checkpoint.get());
+        doAnswer(invocation -> {
+            checkpoint.set(invocation.getArgument(0));
+            return null;
+        }).when(bucket).set(any(), any(Duration.class));
+        when(bucket.delete()).thenAnswer(invocation -> checkpoint.getAndSet(null) != null);
+        RedissonClient redissonClient = mock(RedissonClient.class);
+        when(redissonClient.<Long>getBucket(anyString(), any())).thenReturn(bucket);
+        UserService userService = mock(UserService.class);
+        when(userService.getEncryptPassword(anyString())).thenReturn("encrypted");
+        ReflectionTestUtils.setField(userImporter, "userMapper", userMapper);
+        ReflectionTestUtils.setField(userImporter, "userService", userService);
+        ReflectionTestUtils.setField(userImporter, "userAccountBloomFilter", mock(UserAccountBloomFilter.class));
+        ReflectionTestUtils.setField(userImporter, "redissonClient", redissonClient);
+    }
+
+    @Test
+    void testImport() {
+        // 2500 行，其中 2 个空编号、1 个重复编号
+        List<TestUserInfo> rowList = buildRows(2500);
+        rowList.get(10).setPlantCode("");
+        rowList.get(20).setPlantCode(" ");
+        rowList.get(30).setPlantCode(rowList.get(0).getPlantCode());
+        UserImportResult result = userImporter.importUsers(writeExcel(rowList));
+        Assertions.assertTrue(result.isFinished());
+        Assertions.assertEquals(2500, result.getTotalRows());
+        Assertions.assertEquals(2, result.getInvalidRows());
+        Assertions.assertEquals(1, result.getDuplicateRows());
+        Assertions.assertEquals(2497, result.getInsertedRows());
+        Assertions.assertEquals(2, result.getErrorList().size());
+        // 完成后删除断点
+        Assertions.assertNull(checkpoint.get());
+        // 再次导入全部视为重复
+        result = userImporter.importUsers(writeExcel(rowList));
+        Assertions.assertEquals(0, result.getInsertedRows());
+        Assertions.assertEquals(2498, result.getDuplicateRows());
+    }
+
+    @Test
+    void testResumeFromCheckpoint() {
+        String fileName = writeExcel(buildRows(5000));
+        // 第 3 个批次数据库异常，导入中止
+        doAnswer(invocation -> {
+            List<User> userList = invocation.getArgument(0);
+            if (userList.get(0).getPlanetCode().equals("2000")) {
+                throw new QueryTimeoutException("timeout");
+            }
+            return insertUsers(userList);
+        }).when(userMapper).insertBatchUsers(anyList());
+        UserImportResult result = userImporter.importUsers(fileName);
+        Assertions.assertFalse(result.isFinished());
+        // 断点不会越过失败的批次
+        Assertions.assertNotNull(checkpoint.get());
+        Assertions.assertTrue(checkpoint.get() < 2001);
+        long resumeFrom = checkpoint.get();
+
+        // 恢复后从断点继续
+        doAnswer(invocation -> insertUsers(invocation.getArgument(0))).when(userMapper).insertBatchUsers(anyList());
+        result = userImporter.importUsers(fileName);
+        Assertions.assertTrue(result.isFinished());
+        Assertions.assertEquals(resumeFrom, result.getSkippedRows());
+        Assertions.assertEquals(5000, planetCodeSet.size());
+        Assertions.assertNull(checkpoint.get());
+    }
+
+    @Test
+    void testBatchFailureRetriedRowByRow() {
+        List<TestUserInfo> rowList = buildRows(1500);
+        // 第一批中一行昵称超长、一行账号已被其他用户占用，整批失败后逐行插入
+        rowList.get(99).setUsername(StringUtils.repeat("a", 300));
+        accountSet.add("planet_200");
+        // 预查询之后，并发导入写入了编号 300
+        doAnswer(invocation -> {
+            List<User> userList = invocation.getArgument(0);
+            if (userList.size() > 1 && userList.get(0).getPlanetCode().equals("0")) {
+                planetCodeSet.add("300");
+            }
+            return insertUsers(userList);
+        }).when(userMapper).insertBatchUsers(anyList());
+        UserImportResult result = userImporter.importUsers(writeExcel(rowList));
+        Assertions.assertTrue(result.isFinished());
+        Assertions.assertEquals(1497, result.getInsertedRows());
+        Assertions.assertEquals(2, result.getFailedRows());
+        Assertions.assertEquals(1, result.getDuplicateRows());
+        Assertions.assertEquals(3, result.getErrorList().size());
+        Assertions.assertTrue(result.getErrorList().get(0).startsWith("rows 1-1000 batch insert failed"));
+        Assertions.assertTrue(result.getErrorList().stream().anyMatch(error -> error.startsWith("row 100 planetCode 99 ")));
+        Assertions.assertTrue(result.getErrorList().stream().anyMatch(error -> error.startsWith("row 201 planetCode 200 ")));
+        Assertions.assertFalse(planetCodeSet.contains("99"));
+        Assertions.assertFalse(planetCodeSet.contains("200"));
+    }
+
+    /**
+     * 模拟普通多行 insert：任一行违反唯一索引或列约束时整条语句失败，不插入任何行
+     */
+    private int insertUsers(List<User> userList) {
+        for (User user : userList) {
+            if (user.getUsername() != null && user.getUsername().length() > 256) {
+                throw new DataIntegrityViolationException("Data too long for column 'username'");
+            }
+            if (planetCodeSet.contains(user.getPlanetCode())) {
+                throw new DuplicateKeyException("Duplicate entry for key 'uniIdx_planetCode'");
+            }
+            if (accountSet.contains(user.getUserAccount())) {
+                throw new DuplicateKeyException("Duplicate entry for key 'uniIdx_userAccount'");
+            }
+        }
+        userList.forEach(user -> {
+            planetCodeSet.add(user.getPlanetCode());
+            accountSet.add(user.getUserAccount());
+        });
+        return userList.size();
+    }
+
+    /**
+     * 行号从 1 开始（第 0 行是表头），编号为 0 ~ num-1
+     */
+    private List<TestUserInfo> buildRows(int num) {
+        List<TestUserInfo> rowList = new ArrayList<>(num);
+        for (int i = 0; i < num; i++) {
+            TestUserInfo testUserInfo = new TestUserInfo();
+            testUserInfo.setPlantCode(String.valueOf(i));
+            testUserInfo.setUsername("user" + i);
+            rowList.add(testUserInfo);
+        }
+        return rowList;
+    }
+
+    private String writeExcel(List<TestUserInfo> rowList) {
+        File file = tempDir.resolve("users.xlsx").toFile();
+        EasyExcel.write(file, TestUserInfo.class).sheet().doWrite(rowList);
+        return file.getAbsolutePath();
+    }
+}
@@ -0,0 +1,108 @@
+package com.tu.hb.service;
+
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.tu.hb.exception.BusinessException;
+import com.tu.hb.mapper.UserMapper;
+import com.tu.hb.model.domain.User;
+import com.tu.hb.model.request.UserSearchRequest;
+import com.tu.hb.model.vo.CursorPageVO;
+import com.tu.hb.service.impl.UserServiceImpl;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * 管理员搜索用户（数据库用 Mockito 模拟，检查生成的条件和游标）
+ */
+public class UserSearchTest {
+
+    private final UserServiceImpl userService = new UserServiceImpl();
+
+    private final UserMapper userMapper = mock(UserMapper.class);
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(userService, "baseMapper", userMapper);
+    }
+
+    @Test
+    void testPrefixSearch() {
+        mockUsers(3);
+        UserSearchRequest userSearchRequest = new UserSearchRequest();
+        userSearchRequest.setUsername("a_b");
+        userSearchRequest.setPageSize(2);
+        CursorPageVO<User> userPage = userService.searchUsers(userSearchRequest);
+        Assertions.assertEquals(2, userPage.getRecords().size());
+        Assertions.assertTrue(userPage.isHasMore());
+        QueryWrapper<User> queryWrapper = captureWrapper();
+        String sql = queryWrapper.getCustomSqlSegment();
+        Assertions.assertTrue(sql.contains("username LIKE"));
+        Assertions.assertTrue(sql.contains("ORDER BY username ASC,id ASC"));
+        Assertions.assertTrue(sql.endsWith("limit 3"));
+        // 通配符被转义
+        Assertions.assertTrue(queryWrapper.getParamNameValuePairs().containsValue("a\\_b%"));
+
+        // 下一页从上一页最后一条 (user1, 1) 之后开始
+        userSearchRequest.setCursor(userPage.getNextCursor());
+        userService.searchUsers(userSearchRequest);
+        queryWrapper = captureWrapper();
+        Assertions.assertTrue(queryWrapper.getCustomSqlSegment().contains("(username > "));
+        Assertions.assertTrue(queryWrapper.getParamNameValuePairs().containsValue("user1"));
+        Assertions.assertTrue(queryWrapper.getParamNameValuePairs().containsValue(1L));
+    }
+
+    @Test
+    void testContainsSearch() {
+        mockUsers(1);
+        UserSearchRequest userSearchRequest = new UserSearchRequest();
+        userSearchRequest.setUsername("小\"明");
+        userSearchRequest.setMatchMode("contains");
+        CursorPageVO<User> userPage = userService.searchUsers(userSearchRequest);
+        Assertions.assertFalse(userPage.isHasMore());
+        Assertions.assertNull(userPage.getNextCursor());
+        QueryWrapper<User> queryWrapper = captureWrapper();
+        Assertions.assertTrue(queryWrapper.getCustomSqlSegment().contains("match(username) against("));
+        Assertions.assertTrue(queryWrapper.getCustomSqlSegment().contains("ORDER BY id ASC"));
+        Assertions.assertTrue(queryWrapper.getParamNameValuePairs().containsValue("\"小明\""));
+    }
+
+    @Test
+    void testInvalidRequest() {
+        UserSearchRequest userSearchRequest = new UserSearchRequest();
+        userSearchRequest.setPageSize(101);
+        Assertions.assertThrows(BusinessException.class, () -> userService.searchUsers(userSearchRequest));
+        userSearchRequest.setPageSize(10);
+        userSearchRequest.setMatchMode("contains");
+        userSearchRequest.setUsername("a");
+        Assertions.assertThrows(BusinessException.class, () -> userService.searchUsers(userSearchRequest));
+        userSearchRequest.setMatchMode("prefix");
+        userSearchRequest.setCursor("not-a-cursor");
+        Assertions.assertThrows(BusinessException.class, () -> userService.searchUsers(userSearchRequest));
+    }
+
+    private void mockUsers(int num) {
+        List<User> userList = new ArrayList<>();
+        for (long i = 0; i < num; i++) {
+            User user = new User();
+            user.setId(i);
+            user.setUsername("user" + i);
+            userList.add(user);
+        }
+        when(userMapper.selectList(any())).thenReturn(userList);
+    }
+
+    @SuppressWarnings("unchecked")
+    private QueryWrapper<User> captureWrapper() {
+        ArgumentCaptor<QueryWrapper<User>> captor = ArgumentCaptor.forClass(QueryWrapper.class);
+        verify(userMapper, atLeastOnce()).selectList(captor.capture());
+        return captor.getValue();
+    }
+}